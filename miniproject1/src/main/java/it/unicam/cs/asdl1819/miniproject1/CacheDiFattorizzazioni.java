@@ -0,0 +1,224 @@
+package it.unicam.cs.asdl1819.miniproject1;
+
+import java.util.Arrays;
+
+/**
+ * Una cache di capacità limitata per le fattorizzazioni calcolate da un
+ * {@link Factoriser}. Le chiavi sono numeri {@code long} memorizzati in array
+ * primitivi, quindi né la ricerca né l'inserimento creano oggetti, e i valori
+ * sono {@link Fattorizzazione} immutabili che possono essere restituite a più
+ * thread.
+ *
+ * Quando la cache è piena viene espulsa una fattorizzazione con l'algoritmo
+ * CLOCK, un'approssimazione di LRU: ogni posizione ha un bit di riferimento
+ * acceso a ogni accesso, e una lancetta gira sulle posizioni spegnendo i bit
+ * accesi finché non trova una posizione con il bit spento. Le chiavi sono
+ * indicizzate da una tabella hash a indirizzamento aperto con scansione
+ * lineare.
+ *
+ * Tutti i metodi sono sicuri rispetto ai thread. Le fattorizzazioni mancanti
+ * vengono calcolate fuori dal blocco, quindi thread diversi possono calcolarle
+ * contemporaneamente.
+ *
+ * @author Alex Citeroni
+ *
+ */
+public class CacheDiFattorizzazioni {
+	private final Factoriser factoriser;
+	private final int capacita;
+	// La chiave e il valore di ogni posizione della cache
+	private final long[] chiavi;
+	private final Fattorizzazione[] valori;
+	// Il bit di riferimento di ogni posizione
+	private final boolean[] riferite;
+	// Tabella hash dalle chiavi alle posizioni: contiene la posizione più 1,
+	// oppure 0 se la cella è vuota
+	private final int[] indice;
+	private int occupate;
+	private int lancetta;
+	private long successi;
+	private long fallimenti;
+	private long espulsioni;
+
+	/**
+	 * Crea una cache con la capacità indicata che usa un nuovo
+	 * {@link Factoriser}.
+	 *
+	 * @param capacita il numero massimo di fattorizzazioni conservate
+	 * @throws IllegalArgumentException se la capacità non è positiva o non è
+	 *                                  minore di {@code 2^29}
+	 */
+	public CacheDiFattorizzazioni(int capacita) {
+		this(new Factoriser(), capacita);
+	}
+
+	/**
+	 * Crea una cache con la capacità indicata che usa il fattorizzatore dato.
+	 *
+	 * @param factoriser il fattorizzatore che calcola le fattorizzazioni mancanti
+	 * @param capacita   il numero massimo di fattorizzazioni conservate
+	 * @throws IllegalArgumentException se la capacità non è positiva o non è
+	 *                                  minore di {@code 2^29}
+	 * @throws NullPointerException     se il fattorizzatore è nullo
+	 */
+	public CacheDiFattorizzazioni(Factoriser factoriser, int capacita) {
+		if (factoriser == null)
+			throw new NullPointerException();
+		// Da 2^29 in su la tabella hash avrebbe 2^31 celle, troppe per un array
+		if (capacita < 1 || capacita >= 1 << 29)
+			throw new IllegalArgumentException();
+		this.factoriser = factoriser;
+		this.capacita = capacita;
+		this.chiavi = new long[capacita];
+		this.valori = new Fattorizzazione[capacita];
+		this.riferite = new boolean[capacita];
+		// La tabella hash resta piena al più per metà
+		this.indice = new int[Integer.highestOneBit(capacita) << 2];
+	}
+
+	/**
+	 * Restituisce la capacità di questa cache.
+	 *
+	 * @return il numero massimo di fattorizzazioni conservate
+	 */
+	public int getCapacita() {
+		return capacita;
+	}
+
+	/**
+	 * Restituisce la fattorizzazione di un numero, calcolandola e conservandola
+	 * se non è già nella cache.
+	 *
+	 * @param n il numero da fattorizzare
+	 * @return la fattorizzazione di n
+	 * @throws IllegalArgumentException se si chiede di fattorizzare un numero
+	 *                                  minore di 1.
+	 */
+	public Fattorizzazione getFactors(long n) {
+		if (n < 1)
+			throw new IllegalArgumentException();
+		synchronized (this) {
+			int cella = cerca(n);
+			if (indice[cella] != 0) {
+				int posizione = indice[cella] - 1;
+				riferite[posizione] = true;
+				successi++;
+				return valori[posizione];
+			}
+			fallimenti++;
+		}
+		Fattorizzazione f = factoriser.getFattorizzazione(n);
+		synchronized (this) {
+			// Un altro thread può averla inserita nel frattempo
+			if (indice[cerca(n)] == 0)
+				inserisci(n, f);
+		}
+		return f;
+	}
+
+	/**
+	 * Restituisce il numero di fattorizzazioni conservate.
+	 *
+	 * @return il numero di fattorizzazioni conservate
+	 */
+	public synchronized int size() {
+		return occupate;
+	}
+
+	/**
+	 * Restituisce il numero di richieste trovate nella cache.
+	 *
+	 * @return il numero di successi
+	 */
+	public synchronized long getSuccessi() {
+		return successi;
+	}
+
+	/**
+	 * Restituisce il numero di richieste non trovate nella cache.
+	 *
+	 * @return il numero di fallimenti
+	 */
+	public synchronized long getFallimenti() {
+		return fallimenti;
+	}
+
+	/**
+	 * Restituisce il numero di fattorizzazioni espulse per fare spazio.
+	 *
+	 * @return il numero di espulsioni
+	 */
+	public synchronized long getEspulsioni() {
+		return espulsioni;
+	}
+
+	/**
+	 * Svuota la cache. I contatori non vengono azzerati.
+	 */
+	public synchronized void clear() {
+		Arrays.fill(indice, 0);
+		Arrays.fill(valori, null);
+		Arrays.fill(riferite, false);
+		occupate = 0;
+		lancetta = 0;
+	}
+
+	// Inserisce una chiave assente, espellendone un'altra se la cache è piena
+	private void inserisci(long n, Fattorizzazione f) {
+		int posizione;
+		if (occupate < capacita)
+			posizione = occupate++;
+		else {
+			// La lancetta dà una seconda possibilità alle posizioni riferite
+			while (riferite[lancetta]) {
+				riferite[lancetta] = false;
+				lancetta = lancetta + 1 == capacita ? 0 : lancetta + 1;
+			}
+			posizione = lancetta;
+			lancetta = lancetta + 1 == capacita ? 0 : lancetta + 1;
+			rimuovi(cerca(chiavi[posizione]));
+			espulsioni++;
+		}
+		chiavi[posizione] = n;
+		valori[posizione] = f;
+		riferite[posizione] = false;
+		indice[cerca(n)] = posizione + 1;
+	}
+
+	/*
+	 * Restituisce la cella della tabella hash che contiene la chiave, oppure la
+	 * cella vuota dove andrebbe inserita.
+	 */
+	private int cerca(long n) {
+		int maschera = indice.length - 1;
+		int cella = hash(n) & maschera;
+		while (indice[cella] != 0 && chiavi[indice[cella] - 1] != n)
+			cella = (cella + 1) & maschera;
+		return cella;
+	}
+
+	/*
+	 * Svuota una cella della tabella hash spostando indietro le celle successive
+	 * che altrimenti non sarebbero più raggiungibili.
+	 */
+	private void rimuovi(int cella) {
+		int maschera = indice.length - 1;
+		int vuota = cella;
+		for (int j = (cella + 1) & maschera; indice[j] != 0; j = (j + 1) & maschera) {
+			int ideale = hash(chiavi[indice[j] - 1]) & maschera;
+			// La cella j può andare nella cella vuota se la sua posizione ideale
+			// non cade tra la cella vuota esclusa e j inclusa
+			if (((j - ideale) & maschera) >= ((j - vuota) & maschera)) {
+				indice[vuota] = indice[j];
+				vuota = j;
+			}
+		}
+		indice[vuota] = 0;
+	}
+
+	// Mescola i bit della chiave, moltiplicandola per la sezione aurea
+	private static int hash(long n) {
+		long h = n * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+}
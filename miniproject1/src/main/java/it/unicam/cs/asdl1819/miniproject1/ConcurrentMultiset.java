@@ -0,0 +1,398 @@
+package it.unicam.cs.asdl1819.miniproject1;
+
+import java.util.AbstractMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * Un multiset che può essere modificato da più thread contemporaneamente senza
+ * blocchi esterni. Ogni elemento ha il suo contatore atomico in una
+ * {@link ConcurrentHashMap}, quindi thread che lavorano su elementi diversi non
+ * si ostacolano, e le modifiche di un contatore sono cicli di
+ * {@code compareAndSet}: nessuna operazione attende un'altra. Il numero totale
+ * di occorrenze è tenuto in un {@link LongAdder}, che distribuisce gli
+ * aggiornamenti su più celle quando c'è contesa.
+ *
+ * Un contatore che arriva a 0 viene tolto dalla tabella e non viene più
+ * incrementato: un thread che lo trova a 0 lo sostituisce con un contatore
+ * nuovo. Così un elemento rimosso non può ricomparire con un contatore già
+ * tolto dalla tabella.
+ *
+ * Le letture che coinvolgono più elementi, come {@link #size()},
+ * {@link #elementSet()}, l'iterazione, {@link #equals(Object)} e
+ * {@link #hashCode()}, non sono istantanee: se il multiset viene modificato nel
+ * frattempo possono riflettere solo una parte delle modifiche.
+ *
+ * @author Alex Citeroni
+ *
+ * @param <E> il tipo degli elementi del multiset
+ */
+public class ConcurrentMultiset<E> implements Multiset<E> {
+	private final ConcurrentHashMap<E, AtomicInteger> contatori;
+	// Numero totale di occorrenze
+	private final LongAdder totale;
+
+	/**
+	 * Crea un multiset vuoto.
+	 */
+	public ConcurrentMultiset() {
+		this.contatori = new ConcurrentHashMap<E, AtomicInteger>();
+		this.totale = new LongAdder();
+	}
+
+	/**
+	 * Restituisce il numero totale di occorrenze in questo multiset. Se il numero
+	 * supera {@code Integer.MAX_VALUE} viene restituito
+	 * {@code Integer.MAX_VALUE}.
+	 *
+	 * @return il numero totale di occorrenze in questo multiset
+	 */
+	public int size() {
+		return (int) Math.max(0, Math.min(totale.sum(), Integer.MAX_VALUE));
+	}
+
+	/**
+	 * Restituisce il numero di occorrenze di un elemento in questo multiset.
+	 *
+	 * @param element l'elemento da contare
+	 * @return il numero di occorrenze dell'elemento, possibilmente zero
+	 * @throws NullPointerException se l'elemento è nullo
+	 */
+	public int count(Object element) {
+		if (element == null)
+			throw new NullPointerException();
+		AtomicInteger contatore = contatori.get(element);
+		return contatore == null ? 0 : contatore.get();
+	}
+
+	/**
+	 * Aggiunge un numero di occorrenze di un elemento a questo multiset.
+	 *
+	 * @param element     l'elemento da aggiungere
+	 * @param occurrences il numero di occorrenze da aggiungere, possibilmente zero
+	 * @return il conteggio dell'elemento prima dell'operazione
+	 * @throws IllegalArgumentException se {@code occurrences} è negativo o se
+	 *                                  l'elemento avrebbe più di
+	 *                                  {@code Integer.MAX_VALUE} occorrenze
+	 * @throws NullPointerException     se l'elemento è nullo
+	 */
+	public int add(E element, int occurrences) {
+		if (element == null)
+			throw new NullPointerException();
+		if (occurrences < 0)
+			throw new IllegalArgumentException();
+		if (occurrences == 0)
+			return count(element);
+		while (true) {
+			AtomicInteger contatore = contatori.get(element);
+			if (contatore == null) {
+				contatore = contatori.putIfAbsent(element, new AtomicInteger(occurrences));
+				if (contatore == null) {
+					totale.add(occurrences);
+					return 0;
+				}
+			}
+			while (true) {
+				int prevCount = contatore.get();
+				if (prevCount == 0) {
+					// Il contatore è stato tolto dalla tabella: lo sostituisco
+					if (contatori.replace(element, contatore, new AtomicInteger(occurrences))) {
+						totale.add(occurrences);
+						return 0;
+					}
+					break;
+				}
+				if ((long) prevCount + occurrences > Integer.MAX_VALUE)
+					throw new IllegalArgumentException();
+				if (contatore.compareAndSet(prevCount, prevCount + occurrences)) {
+					totale.add(occurrences);
+					return prevCount;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Aggiunge una singola occorrenza di un elemento a questo multiset.
+	 *
+	 * @param element l'elemento da aggiungere
+	 * @throws NullPointerException     se l'elemento è nullo
+	 * @throws IllegalArgumentException se l'elemento ha già
+	 *                                  {@code Integer.MAX_VALUE} occorrenze
+	 */
+	public void add(E element) {
+		add(element, 1);
+	}
+
+	/**
+	 * Rimuove un numero di occorrenze di un elemento da questo multiset. Se le
+	 * occorrenze sono meno di quelle richieste vengono rimosse tutte.
+	 *
+	 * @param element     l'elemento da rimuovere
+	 * @param occurrences il numero di occorrenze da rimuovere, possibilmente zero
+	 * @return il conteggio dell'elemento prima dell'operazione
+	 * @throws IllegalArgumentException se {@code occurrences} è negativo
+	 * @throws NullPointerException     se l'elemento è nullo
+	 */
+	public int remove(Object element, int occurrences) {
+		if (element == null)
+			throw new NullPointerException();
+		if (occurrences < 0)
+			throw new IllegalArgumentException();
+		AtomicInteger contatore = contatori.get(element);
+		if (contatore == null)
+			return 0;
+		if (occurrences == 0)
+			return contatore.get();
+		while (true) {
+			int prevCount = contatore.get();
+			if (prevCount == 0)
+				return 0;
+			int nuovo = Math.max(0, prevCount - occurrences);
+			if (contatore.compareAndSet(prevCount, nuovo)) {
+				if (nuovo == 0)
+					contatori.remove(element, contatore);
+				totale.add(nuovo - prevCount);
+				return prevCount;
+			}
+		}
+	}
+
+	/**
+	 * Rimuove una singola occorrenza di un elemento da questo multiset, se
+	 * presente.
+	 *
+	 * @param element l'elemento da rimuovere
+	 * @return true se un'occorrenza è stata trovata e rimossa
+	 * @throws NullPointerException se l'elemento è nullo
+	 */
+	public boolean remove(Object element) {
+		return remove(element, 1) > 0;
+	}
+
+	/**
+	 * Porta atomicamente il conteggio di un elemento al valore richiesto: nessuna
+	 * modifica concorrente dello stesso elemento può inserirsi tra la lettura del
+	 * conteggio precedente e la scrittura di quello nuovo.
+	 *
+	 * @param element     l'elemento
+	 * @param occurrences il conteggio richiesto
+	 * @return il conteggio dell'elemento prima dell'operazione
+	 * @throws IllegalArgumentException se il conteggio è negativo
+	 * @throws NullPointerException     se l'elemento è nullo
+	 */
+	public int setCount(E element, int occurrences) {
+		if (element == null)
+			throw new NullPointerException();
+		if (occurrences < 0)
+			throw new IllegalArgumentException();
+		while (true) {
+			AtomicInteger contatore = contatori.get(element);
+			if (contatore == null) {
+				if (occurrences == 0)
+					return 0;
+				contatore = contatori.putIfAbsent(element, new AtomicInteger(occurrences));
+				if (contatore == null) {
+					totale.add(occurrences);
+					return 0;
+				}
+			}
+			while (true) {
+				int prevCount = contatore.get();
+				if (prevCount == 0) {
+					if (occurrences == 0)
+						return 0;
+					if (contatori.replace(element, contatore, new AtomicInteger(occurrences))) {
+						totale.add(occurrences);
+						return 0;
+					}
+					break;
+				}
+				if (contatore.compareAndSet(prevCount, occurrences)) {
+					if (occurrences == 0)
+						contatori.remove(element, contatore);
+					totale.add(occurrences - prevCount);
+					return prevCount;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Restituisce un nuovo insieme con gli elementi distinti di questo multiset.
+	 *
+	 * @return l'insieme degli elementi distinti
+	 */
+	public Set<E> elementSet() {
+		Set<E> risultato = new HashSet<E>();
+		for (Map.Entry<E, AtomicInteger> entry : contatori.entrySet())
+			if (entry.getValue().get() > 0)
+				risultato.add(entry.getKey());
+		return risultato;
+	}
+
+	/**
+	 * Restituisce un iteratore che presenta le occorrenze di ogni elemento una
+	 * dopo l'altra. Il conteggio di un elemento viene letto quando l'iteratore
+	 * lo raggiunge.
+	 *
+	 * @return un iteratore per questo multiset
+	 */
+	public Iterator<E> iterator() {
+		final Iterator<Map.Entry<E, AtomicInteger>> entries = contatori.entrySet().iterator();
+		return new Iterator<E>() {
+			private E corrente;
+			private int rimanenti = 0;
+
+			@Override
+			public boolean hasNext() {
+				while (rimanenti == 0 && entries.hasNext()) {
+					Map.Entry<E, AtomicInteger> entry = entries.next();
+					corrente = entry.getKey();
+					rimanenti = entry.getValue().get();
+				}
+				return rimanenti > 0;
+			}
+
+			@Override
+			public E next() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+				rimanenti--;
+				return corrente;
+			}
+		};
+	}
+
+	/**
+	 * Restituisce un iteratore sugli elementi distinti, ognuno con il conteggio
+	 * letto quando l'iteratore lo raggiunge.
+	 *
+	 * @return un iteratore sulle coppie (elemento, conteggio)
+	 */
+	@Override
+	public Iterator<Map.Entry<E, Integer>> entryIterator() {
+		final Iterator<Map.Entry<E, AtomicInteger>> entries = contatori.entrySet().iterator();
+		return new Iterator<Map.Entry<E, Integer>>() {
+			private Map.Entry<E, Integer> prossima;
+
+			@Override
+			public boolean hasNext() {
+				while (prossima == null && entries.hasNext()) {
+					Map.Entry<E, AtomicInteger> entry = entries.next();
+					int conteggio = entry.getValue().get();
+					if (conteggio > 0)
+						prossima = new AbstractMap.SimpleImmutableEntry<E, Integer>(entry.getKey(), conteggio);
+				}
+				return prossima != null;
+			}
+
+			@Override
+			public Map.Entry<E, Integer> next() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+				Map.Entry<E, Integer> entry = prossima;
+				prossima = null;
+				return entry;
+			}
+		};
+	}
+
+	/**
+	 * Esegue un'operazione su ogni elemento distinto con il suo conteggio.
+	 *
+	 * @param action l'operazione da eseguire
+	 * @throws NullPointerException se l'operazione è nulla
+	 */
+	@Override
+	public void forEachEntry(BiConsumer<? super E, ? super Integer> action) {
+		if (action == null)
+			throw new NullPointerException();
+		for (Map.Entry<E, AtomicInteger> entry : contatori.entrySet()) {
+			int conteggio = entry.getValue().get();
+			if (conteggio > 0)
+				action.accept(entry.getKey(), conteggio);
+		}
+	}
+
+	/**
+	 * Controlla se questo multiset contiene almeno un'occorrenza di un elemento.
+	 *
+	 * @param element l'elemento da cercare
+	 * @return true se l'elemento è contenuto in questo multiset
+	 * @throws NullPointerException se l'elemento è nullo
+	 */
+	public boolean contains(Object element) {
+		return count(element) > 0;
+	}
+
+	/**
+	 * Rimuove tutti gli elementi da questo multiset, azzerando i contatori uno
+	 * alla volta.
+	 */
+	public void clear() {
+		for (E element : contatori.keySet())
+			setCount(element, 0);
+	}
+
+	/**
+	 * Controlla se questo multiset è vuoto.
+	 *
+	 * @return true se questo multiset non contiene elementi
+	 */
+	public boolean isEmpty() {
+		return totale.sum() <= 0;
+	}
+
+	/**
+	 * Restituisce un codice hash che non dipende dall'ordine degli elementi: la
+	 * somma di {@code element.hashCode() ^ count} su tutti gli elementi distinti.
+	 *
+	 * @return il codice hash di questo multiset
+	 */
+	@Override
+	public int hashCode() {
+		int h = 0;
+		for (Map.Entry<E, AtomicInteger> entry : contatori.entrySet()) {
+			int conteggio = entry.getValue().get();
+			if (conteggio > 0)
+				h += entry.getKey().hashCode() ^ conteggio;
+		}
+		return h;
+	}
+
+	/**
+	 * Confronta questo multiset con un oggetto. Restituisce true se l'oggetto è
+	 * un {@link Multiset} con gli stessi elementi e gli stessi conteggi.
+	 *
+	 * @param obj l'oggetto da confrontare
+	 * @return true se l'oggetto è un multiset uguale a questo
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!(obj instanceof Multiset))
+			return false;
+		Multiset<?> other = (Multiset<?>) obj;
+		if (other.size() != size())
+			return false;
+		int distinti = 0;
+		for (Map.Entry<E, AtomicInteger> entry : contatori.entrySet()) {
+			int conteggio = entry.getValue().get();
+			if (conteggio > 0) {
+				distinti++;
+				if (other.count(entry.getKey()) != conteggio)
+					return false;
+			}
+		}
+		return other.elementSet().size() == distinti;
+	}
+}
@@ -0,0 +1,73 @@
+package it.unicam.cs.asdl1819.miniproject1;
+
+import java.util.PrimitiveIterator;
+
+/**
+ * Conta i numeri primi minori o uguali a {@code n}, cioè calcola {@code π(n)},
+ * senza setacciare fino a {@code n}. Il conteggio usa il metodo di Lucy
+ * Hedgehog: si calcola {@code S(v)}, il numero di interi in {@code [2, v]} non
+ * cancellati dai primi già considerati, solo per i valori {@code v = n / i},
+ * che sono al più {@code 2√n}, e si aggiorna la tabella per ogni primo fino a
+ * {@code √n}. I primi base vengono letti da un {@link CrivelloDiEratostene} di
+ * capacità {@code √n}.
+ *
+ * Il tempo è circa {@code O(n^(3/4) / log n)} e lo spazio {@code O(√n)}: un
+ * conteggio fino a {@code 10^13} richiede pochi secondi e qualche decina di
+ * megabyte.
+ *
+ * @author Alex Citeroni
+ *
+ */
+public final class ContatorePrimi {
+	private ContatorePrimi() {
+	}
+
+	/**
+	 * Conta i numeri primi minori o uguali a un numero dato.
+	 *
+	 * @param n il numero fino a cui contare
+	 * @return il numero di primi minori o uguali a {@code n}
+	 * @throws IllegalArgumentException se {@code n} è negativo o se le tabelle di
+	 *                                  dimensione {@code √n} non possono essere
+	 *                                  allocate
+	 */
+	public static long pi(long n) {
+		if (n < 0)
+			throw new IllegalArgumentException();
+		if (n < 2)
+			return 0;
+		long radice = Setaccio.radice(n);
+		if (radice > Integer.MAX_VALUE - 8)
+			throw new IllegalArgumentException();
+		int r = (int) radice;
+		// piccoli[v] = S(v) per v <= r, grandi[i] = S(n / i) per i <= r
+		int[] piccoli = new int[r + 1];
+		long[] grandi = new long[r + 1];
+		for (int v = 1; v <= r; v++)
+			piccoli[v] = v - 1;
+		for (int i = 1; i <= r; i++)
+			grandi[i] = n / i - 1;
+		if (r < 2)
+			return grandi[1];
+		PrimitiveIterator.OfInt primi = new CrivelloDiEratostene(r).primesFrom(2);
+		while (primi.hasNext()) {
+			int p = primi.nextInt();
+			// Numero di primi minori di p
+			int precedenti = piccoli[p - 1];
+			long quadrato = (long) p * p;
+			// Tolgo da S(n / i) gli interi che hanno p come minimo fattore primo
+			long limite = Math.min(r, n / quadrato);
+			long ultimoGrande = Math.min(limite, r / p);
+			for (int i = 1; i <= ultimoGrande; i++)
+				grandi[i] -= grandi[i * p] - precedenti;
+			// Per i * p > r il valore n / (i * p) = (n / p) / i non supera r
+			long m = n / p;
+			for (int i = (int) ultimoGrande + 1; i <= limite; i++)
+				grandi[i] -= piccoli[(int) (m / i)] - precedenti;
+			// Lo stesso per S(v) con v >= p * p
+			for (int v = r; v >= quadrato; v--)
+				piccoli[v] -= piccoli[v / p] - precedenti;
+		}
+		return grandi[1];
+	}
+}
@@ -0,0 +1,199 @@
+package it.unicam.cs.asdl1819.miniproject1;
+
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Crivello di Eratostene fattorizzato con la ruota modulo 30. Vengono
+ * memorizzati solo i numeri primi con 30, cioè quelli che modulo 30 valgono
+ * 1, 7, 11, 13, 17, 19, 23 o 29: sono esattamente 8 ogni 30 numeri, quindi
+ * ogni byte della tabella rappresenta 30 numeri consecutivi e l'occupazione è
+ * di circa {@code n / 30} byte. Anche la marcatura salta i multipli di 2, 3 e
+ * 5.
+ *
+ * Il comportamento dei metodi è lo stesso di {@link CrivelloDiEratostene}.
+ *
+ * La ruota è una classe separata e non una modalità di
+ * {@link CrivelloDiEratostene} perché la tabella di quella classe, un bit per
+ * ogni numero dispari in parole da 64 bit, è usata direttamente dalla
+ * directory di {@code primeCount} e {@code nthPrime}, dalla costruzione
+ * parallela, dalla crescita con {@code ensureCapacity}, dallo spliterator di
+ * {@code primes()} e dal formato di {@code salva}, letto da
+ * {@link CrivelloMappato}: una seconda disposizione dei bit richiederebbe un
+ * ramo in ognuno di questi punti e cambierebbe il formato dei file. Questa
+ * classe offre quindi solo {@code isPrime}, {@code nextPrime} e
+ * {@code getPrimes}, senza conteggi, crescita né salvataggio; chi ha bisogno
+ * di queste operazioni deve usare {@link CrivelloDiEratostene}.
+ *
+ * @author Alex Citeroni
+ *
+ */
+public class CrivelloARuota {
+	// I residui modulo 30 primi con 30: il residuo RESIDUI[b] corrisponde al bit b
+	private static final int[] RESIDUI = { 1, 7, 11, 13, 17, 19, 23, 29 };
+	// Per ogni residuo modulo 30 il bit corrispondente, o -1 se non è primo con 30
+	private static final int[] BIT = new int[30];
+	// Per ogni residuo modulo 30 la maschera dei bit dei residui maggiori
+	private static final int[] SUCCESSIVI = new int[30];
+
+	static {
+		for (int r = 0; r < 30; r++) {
+			BIT[r] = -1;
+			for (int b = 0; b < 8; b++) {
+				if (RESIDUI[b] == r)
+					BIT[r] = b;
+				if (RESIDUI[b] > r)
+					SUCCESSIVI[r] |= 1 << b;
+			}
+		}
+	}
+
+	private int capacity;
+	// Tabella della ruota: il bit b del byte k rappresenta il numero
+	// 30k + RESIDUI[b] ed è acceso se il numero è composto
+	private byte[] ruota;
+
+	/**
+	 * Costruisce il crivello a ruota fino a un certo numero. Il numero deve
+	 * essere almeno 2.
+	 *
+	 * @param n numero di entrate nel crivello
+	 *
+	 * @throws IllegalArgumentException se il numero {@code n} è minore di {@code 2}
+	 */
+	public CrivelloARuota(int n) {
+		// Verifico che n sia maggiore di 2
+		if (n < 2)
+			throw new IllegalArgumentException();
+		this.capacity = n;
+		riempimento(n);
+	}
+
+	/**
+	 * Restituisce la capacità di questo crivello, cioè il numero massimo di
+	 * entrate.
+	 *
+	 * @return la capacità di questo crivello
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Controlla se un numero è primo. Il numero viene ricondotto in tempo costante
+	 * a un byte e a un bit della ruota.
+	 *
+	 * @param n il numero da controllare
+	 * @return true se il numero passato è primo
+	 * @throws IllegalArgumentException se il numero passato {@code n} eccede la
+	 *                                  capacità di questo crivello o se è un numero
+	 *                                  minore di 1.
+	 */
+	public boolean isPrime(int n) {
+		// Verifico che n sia maggiore di 1 e che n sia minore di capacity
+		if (n < 1 || n > capacity)
+			throw new IllegalArgumentException();
+		// 1, 2, 3 e 5 sono numeri primi
+		if (n == 1 || n == 2 || n == 3 || n == 5)
+			return true;
+		int bit = BIT[n % 30];
+		// I numeri non primi con 30 non sono primi
+		if (bit == -1)
+			return false;
+		return (ruota[n / 30] & (1 << bit)) == 0;
+	}
+
+	/**
+	 * Cerca nel crivello il numero primo successivo a un numero dato. La ricerca
+	 * parte dal bit successivo a {@code n} nel suo byte e prosegue un byte alla
+	 * volta.
+	 *
+	 * @param n il numero da cui partire
+	 * @return il numero primo successivo a {@code n} in questo crivello oppure -1
+	 *         se in questo crivello non ci sono numeri primi maggiori di {@code n}
+	 * @throws IllegalArgumentException se il numero passato {@code n} eccede la
+	 *                                  capacità di questo crivello o se è un numero
+	 *                                  minore di 1.
+	 */
+	public int nextPrime(int n) {
+		// Verifico che n sia maggiore di 1 e che n sia minore di capacity
+		if (n < 1 || n > capacity)
+			throw new IllegalArgumentException();
+		// 2, 3 e 5 non sono nella ruota
+		if (n < 5) {
+			int primo = n < 2 ? 2 : n < 3 ? 3 : 5;
+			return primo <= capacity ? primo : -1;
+		}
+		int k = n / 30;
+		// Considero solo i bit dei residui maggiori di quello di n
+		int liberi = ~ruota[k] & SUCCESSIVI[n % 30];
+		while (liberi == 0) {
+			if (++k == ruota.length)
+				return -1;
+			liberi = ~ruota[k] & 0xFF;
+		}
+		return 30 * k + RESIDUI[Integer.numberOfTrailingZeros(liberi)];
+	}
+
+	/**
+	 * Restituisce l'insieme dei numeri primi calcolati attraverso questo crivello.
+	 * Per convenzione il numero primo {@code 1} non viene incluso nel risultato.
+	 *
+	 * @return l'insieme dei numeri primi calcolati attraverso questo crivello.
+	 */
+	public SortedSet<Integer> getPrimes() {
+		TreeSet<Integer> primes = new TreeSet<Integer>();
+		for (int p = nextPrime(1); p != -1; p = nextPrime(p))
+			primes.add(p);
+		return primes;
+	}
+
+	// Creo un metodo per riempire il crivello
+	private void riempimento(int n) {
+		// Un byte ogni 30 numeri da 0 a n
+		ruota = new byte[n / 30 + 1];
+		// 1 non viene considerato primo nella tabella
+		ruota[0] |= 1;
+		// Accendo i bit dell'ultimo byte che vanno oltre la capacità
+		for (int b = 0; b < 8; b++)
+			if (30L * (ruota.length - 1) + RESIDUI[b] > n)
+				ruota[ruota.length - 1] |= 1 << b;
+		// Per ogni primo p dalla ruota in poi e ogni residuo, i multipli p * q con q
+		// primo con 30 e q >= p formano una progressione che nella tabella avanza
+		// di p byte restando sempre sullo stesso bit
+		int[] primi = Setaccio.primiBase((int) Setaccio.radice(n));
+		int[] prossimo = new int[8 * primi.length];
+		int[] bit = new int[8 * primi.length];
+		for (int i = 0; i < primi.length; i++) {
+			int p = primi[i];
+			// 3 e 5 sono già esclusi dalla ruota
+			if (p < 7) {
+				for (int t = 0; t < 8; t++)
+					prossimo[8 * i + t] = Integer.MAX_VALUE;
+				continue;
+			}
+			for (int t = 0; t < 8; t++) {
+				long q = p - p % 30 + RESIDUI[t];
+				if (q < p)
+					q += 30;
+				long multiplo = p * q;
+				// Le progressioni che partono oltre n non vengono mai usate
+				prossimo[8 * i + t] = multiplo > n ? Integer.MAX_VALUE : (int) (multiplo / 30);
+				bit[8 * i + t] = 1 << BIT[(int) (multiplo % 30)];
+			}
+		}
+		// Setaccio un segmento alla volta perché resti nella cache
+		for (int inizio = 0; inizio < ruota.length; inizio += Setaccio.DIMENSIONE_SEGMENTO) {
+			int fine = (int) Math.min(ruota.length, (long) inizio + Setaccio.DIMENSIONE_SEGMENTO);
+			for (int i = 0; i < primi.length; i++) {
+				int p = primi[i];
+				for (int t = 8 * i; t < 8 * i + 8; t++) {
+					int j = prossimo[t];
+					for (; j < fine; j += p)
+						ruota[j] |= bit[t];
+					prossimo[t] = j;
+				}
+			}
+		}
+	}
+}
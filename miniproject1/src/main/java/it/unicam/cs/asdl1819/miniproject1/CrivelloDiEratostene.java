@@ -1,68 +1,198 @@
 package it.unicam.cs.asdl1819.miniproject1;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.TreeSet; // Utilizzare questa classe per il SortedSet
 import java.util.SortedSet;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
 
 /**
  * Il crivello di Eratostene è un modo per determinare tutti i numeri primi da
  * {@code 1} a un certo intero {@code n} assegnato.
  * 
+ * Il crivello è memorizzato in una tabella di bit che rappresenta solo i numeri
+ * dispari: il bit di indice {@code i} corrisponde al numero {@code 2i + 1} ed è
+ * acceso se il numero non è primo. L'occupazione è quindi di circa
+ * {@code n / 16} byte e la costruzione costa {@code O(n log log n)}.
+ * 
  * @author Luca Tesei (template), ** Alex Citeroni** (implementazione)
  *
  */
 public class CrivelloDiEratostene {
+	// Parole necessarie per la capacità massima Integer.MAX_VALUE
+	private static final int MASSIMO_PAROLE = 1 << 24;
 	private int capacity;
-	private TreeSet<Integer> primes;
-	private Integer biggestNumberPrime;
+	// Tabella di bit dei numeri dispari: il bit i rappresenta il numero 2i + 1 ed
+	// è acceso se il numero è composto
+	private long[] composti;
+	// Numero di bit significativi della tabella
+	private int numeroBit;
+	// Dimensione dei segmenti e parallelismo usati anche quando il crivello cresce
+	private int dimensioneSegmento;
+	private int parallelismo;
+	// Se vero il crivello cresce da solo quando si interroga oltre la capacità
+	private boolean crescitaAutomatica;
+	// Directory per rank e select: rango[b] è il numero di bit spenti nei blocchi
+	// di 16 parole che precedono il blocco b. Viene costruita alla prima
+	// interrogazione e scartata quando il crivello cresce
+	private int[] rango;
 
 	/**
 	 * Costruisce il crivello di Eratostene fino a un certo numero. Il numero deve
-	 * essere almeno 2.
+	 * essere almeno 2. Il crivello viene setacciato a segmenti della dimensione
+	 * predefinita, scelta in modo che ogni segmento stia nella cache.
 	 * 
 	 * @param n numero di entrate nel crivello
 	 * 
 	 * @throws IllegalArgumentException se il numero {@code n} è minore di {@code 2}
 	 */
 	public CrivelloDiEratostene(int n) {
+		this(n, Setaccio.DIMENSIONE_SEGMENTO);
+	}
+
+	/**
+	 * Costruisce il crivello di Eratostene fino a un certo numero setacciandolo a
+	 * segmenti della dimensione indicata. Ogni segmento viene setacciato con i
+	 * primi fino alla radice di {@code n} prima di passare al successivo, quindi
+	 * conviene scegliere una dimensione che stia nella cache L1 o L2. Il
+	 * risultato non dipende dalla dimensione dei segmenti.
+	 * 
+	 * @param n                  numero di entrate nel crivello
+	 * @param dimensioneSegmento dimensione in byte di un segmento
+	 * 
+	 * @throws IllegalArgumentException se il numero {@code n} è minore di
+	 *                                  {@code 2} o se la dimensione dei segmenti
+	 *                                  non è un multiplo positivo di 8
+	 */
+	public CrivelloDiEratostene(int n, int dimensioneSegmento) {
+		this(n, dimensioneSegmento, 1);
+	}
+
+	/**
+	 * Costruisce il crivello di Eratostene fino a un certo numero setacciando in
+	 * parallelo segmenti della dimensione indicata. I segmenti sono indipendenti:
+	 * vengono setacciati su un {@link java.util.concurrent.ForkJoinPool} a partire
+	 * dagli stessi primi base e ognuno scrive direttamente la propria parte della
+	 * tabella, quindi il risultato è identico a quello della costruzione
+	 * sequenziale.
+	 * 
+	 * @param n                  numero di entrate nel crivello
+	 * @param dimensioneSegmento dimensione in byte di un segmento
+	 * @param parallelismo       numero di thread da usare per la costruzione
+	 * 
+	 * @throws IllegalArgumentException se il numero {@code n} è minore di
+	 *                                  {@code 2}, se la dimensione dei segmenti
+	 *                                  non è un multiplo positivo di 8 o se il
+	 *                                  parallelismo non è positivo
+	 */
+	public CrivelloDiEratostene(int n, int dimensioneSegmento, int parallelismo) {
 		// Verifico che n sia maggiore di 2
 		if (n < 2)
 			throw new IllegalArgumentException();
+		// Verifico che i segmenti siano fatti di parole intere
+		if (dimensioneSegmento <= 0 || dimensioneSegmento % 8 != 0)
+			throw new IllegalArgumentException();
+		// Verifico che ci sia almeno un thread
+		if (parallelismo < 1)
+			throw new IllegalArgumentException();
 		// Indico la capacità
 		this.capacity = n;
+		this.dimensioneSegmento = dimensioneSegmento;
+		this.parallelismo = parallelismo;
 		// Riempio il crivello di Eratostene
-		this.primes = riempimento(n);
+		riempimento(n);
 	}
 
 	/**
-	 * Cerca nel crivello l'indice del numero primo successivo a un numero dato.
+	 * Cerca nel crivello l'indice del numero primo successivo a un numero dato. Se
+	 * la crescita automatica è attiva il crivello cresce finché non contiene un
+	 * primo maggiore di {@code n}.
 	 * 
 	 * @param n il numero da cui partire
 	 * @return il numero primo successivo a {@code n} in questo crivello oppure -1
 	 *         se in questo crivello non ci sono numeri primi maggiori di {@code n}
 	 * @throws IllegalArgumentException se il numero passato {@code n} eccede la
-	 *                                  capacità di questo crivello o se è un numero
+	 *                                  capacità di questo crivello e la crescita
+	 *                                  automatica non è attiva o se è un numero
 	 *                                  minore di 1.
 	 */
 	public int nextPrime(int n) {
 		// Verifico che n sia maggiore di 1 e che n sia minore di capacity
-		if (n < 1 || n > capacity)
+		if (n < 1 || (n > capacity && !crescitaAutomatica))
 			throw new IllegalArgumentException();
-		// Se non ci sono numeri primi maggiori di capacity
-		if (n >= biggestNumberPrime)
-			return -1;
-		return primes.higher(n);
+		// 2 è l'unico primo pari
+		if (n < 2)
+			return 2;
+		if (n > capacity)
+			cresci(n);
+		// Cerco il primo bit spento a partire dal dispari successivo a n
+		int indice = prossimoPrimo((n + 1) >>> 1);
+		// Se posso, raddoppio il crivello finché non trovo un primo
+		while (indice == -1 && crescitaAutomatica && capacity < Integer.MAX_VALUE) {
+			cresci(capacity + 1);
+			indice = prossimoPrimo((n + 1) >>> 1);
+		}
+		return indice == -1 ? -1 : 2 * indice + 1;
 	}
 
 	/**
 	 * Restituisce l'insieme dei numeri primi calcolati attraverso questo crivello.
 	 * Per convenzione il numero primo {@code 1} non viene incluso nel risultato.
+	 * L'insieme viene costruito a ogni chiamata leggendo la tabella di bit.
 	 * 
 	 * @return l'insieme dei numeri primi calcolati attraverso questo crivello.
 	 */
 	public SortedSet<Integer> getPrimes() {
+		final TreeSet<Integer> primes = new TreeSet<Integer>();
+		primes().forEach(p -> primes.add(p));
 		return primes;
 	}
 
+	/**
+	 * Restituisce un iteratore sui numeri primi di questo crivello maggiori o
+	 * uguali a un numero dato, in ordine crescente. I primi vengono letti dalla
+	 * tabella di bit man mano che si avanza, senza costruire un insieme e senza
+	 * usare oggetti {@code Integer}. Se il crivello cresce dopo la creazione
+	 * l'iteratore continua a presentare solo i primi fino alla capacità
+	 * precedente.
+	 * 
+	 * @param start il numero da cui partire
+	 * @return un iteratore sui numeri primi maggiori o uguali a {@code start}
+	 * @throws IllegalArgumentException se il numero passato {@code start} eccede
+	 *                                  la capacità di questo crivello o se è un
+	 *                                  numero minore di 1.
+	 */
+	public PrimitiveIterator.OfInt primesFrom(int start) {
+		// Verifico che start sia maggiore di 1 e che start sia minore di capacity
+		if (start < 1 || start > capacity)
+			throw new IllegalArgumentException();
+		boolean due = start <= 2;
+		return Spliterators.iterator(new SpliteratorPrimi(composti, due ? 1 : start >>> 1, numeroBit, due));
+	}
+
+	/**
+	 * Restituisce lo stream dei numeri primi di questo crivello in ordine
+	 * crescente. Lo stream scorre la tabella di bit senza costruire un insieme e
+	 * senza usare oggetti {@code Integer}; se reso parallelo viene diviso in parti
+	 * con lo stesso numero di parole della tabella.
+	 * 
+	 * @return lo stream dei numeri primi di questo crivello
+	 */
+	public IntStream primes() {
+		return StreamSupport.intStream(new SpliteratorPrimi(composti, 1, numeroBit, true), false);
+	}
+
 	/**
 	 * Restituisce la capacità di questo crivello, cioè il numero massimo di
 	 * entrate.
@@ -75,45 +205,389 @@ public class CrivelloDiEratostene {
 
 	/**
 	 * Controlla se un numero è primo. Può rispondere solo se il numero passato come
-	 * parametro è minore o uguale alla capacità di questo crivello.
+	 * parametro è minore o uguale alla capacità di questo crivello, a meno che la
+	 * crescita automatica non sia attiva.
 	 * 
 	 * @param n il numero da controllare
 	 * @return true se il numero passato è primo
 	 * @throws IllegalArgumentException se il numero passato {@code n} eccede la
-	 *                                  capacità di questo crivello o se è un numero
+	 *                                  capacità di questo crivello e la crescita
+	 *                                  automatica non è attiva o se è un numero
 	 *                                  minore di 1.
 	 */
 	public boolean isPrime(int n) {
 		// Verifico che n sia maggiore di 1 e che n sia minore di capacity
-		if (n < 1 || n > capacity)
+		if (n < 1 || (n > capacity && !crescitaAutomatica))
 			throw new IllegalArgumentException();
-		// 1, 2 e 3 sono numeri primi
-		if (n == 1 || n == 2 || n == 3)
+		if (n > capacity)
+			cresci(n);
+		// 1 e 2 sono numeri primi
+		if (n == 1 || n == 2)
 			return true;
-		// Verifico che n non sia divisibile per 2 e per 3
-		if (n % 2 == 0 || n % 3 == 0)
+		// Gli altri numeri pari non sono primi
+		if (n % 2 == 0)
 			return false;
-		// Creo un ciclo per verificare quali sono gli altri numeri primi
-		for (int i = 5; i <= Math.sqrt(n); i += 2)
-			// Verifico che n sia un numero primo
-			if (n % i == 0)
+		// Leggo il bit del numero dispari
+		return !isComposto(n >>> 1);
+	}
+
+	/**
+	 * Controlla se un numero qualsiasi è primo. Se il numero è entro la capacità
+	 * di questo crivello la risposta viene letta dalla tabella in tempo costante,
+	 * altrimenti viene calcolata con il test deterministico di
+	 * {@link MillerRabin} in tempo {@code O(log n)}, senza estendere il crivello.
+	 * 
+	 * @param n il numero da controllare
+	 * @return true se il numero passato è primo
+	 * @throws IllegalArgumentException se il numero passato {@code n} è minore di
+	 *                                  1.
+	 */
+	public boolean isPrime(long n) {
+		// Verifico che n sia maggiore di 1
+		if (n < 1)
+			throw new IllegalArgumentException();
+		if (n <= capacity)
+			return isPrime((int) n);
+		return MillerRabin.isPrime(n);
+	}
+
+	/**
+	 * Conta i numeri primi minori o uguali a un numero dato, cioè calcola
+	 * {@code π(n)}. Per convenzione il numero {@code 1} non viene contato. Il
+	 * conteggio usa una directory di conteggi cumulativi per blocchi di 1024 bit,
+	 * che occupa circa il 3% della tabella, quindi richiede un tempo costante.
+	 * 
+	 * @param n il numero fino a cui contare
+	 * @return il numero di primi minori o uguali a {@code n}
+	 * @throws IllegalArgumentException se il numero passato {@code n} eccede la
+	 *                                  capacità di questo crivello e la crescita
+	 *                                  automatica non è attiva o se è un numero
+	 *                                  minore di 1.
+	 */
+	public int primeCount(int n) {
+		// Verifico che n sia maggiore di 1 e che n sia minore di capacity
+		if (n < 1 || (n > capacity && !crescitaAutomatica))
+			throw new IllegalArgumentException();
+		if (n > capacity)
+			cresci(n);
+		if (n < 2)
+			return 0;
+		// Conto 2 e i primi dispari con indice minore di quello successivo a n
+		return 1 + contaPrimiDispari((n + 1) >>> 1);
+	}
+
+	/**
+	 * Restituisce il {@code k}-esimo numero primo, contando da {@code 1} per il
+	 * numero {@code 2}. La ricerca binaria sulla directory dei conteggi individua
+	 * il blocco, poi il primo viene selezionato all'interno delle sue parole. Se
+	 * la crescita automatica è attiva il crivello cresce finché non contiene
+	 * almeno {@code k} primi.
+	 * 
+	 * @param k la posizione del primo cercato
+	 * @return il {@code k}-esimo numero primo oppure -1 se in questo crivello ci
+	 *         sono meno di {@code k} numeri primi
+	 * @throws IllegalArgumentException se {@code k} è minore di 1
+	 */
+	public int nthPrime(int k) {
+		if (k < 1)
+			throw new IllegalArgumentException();
+		if (k == 1)
+			return 2;
+		// Cerco il (k - 1)-esimo bit spento
+		int resto = k - 1;
+		while (contaPrimiDispari(numeroBit) < resto && crescitaAutomatica && capacity < Integer.MAX_VALUE)
+			cresci(capacity + 1);
+		if (contaPrimiDispari(numeroBit) < resto)
+			return -1;
+		int[] rango = directory();
+		// Ultimo blocco che ha meno di resto bit spenti prima di sé
+		int basso = 0;
+		int alto = rango.length - 1;
+		while (basso < alto) {
+			int mezzo = (basso + alto + 1) >>> 1;
+			if (rango[mezzo] < resto)
+				basso = mezzo;
+			else
+				alto = mezzo - 1;
+		}
+		resto -= rango[basso];
+		int parola = basso << 4;
+		long liberi = ~composti[parola];
+		while (Long.bitCount(liberi) < resto) {
+			resto -= Long.bitCount(liberi);
+			liberi = ~composti[++parola];
+		}
+		// Scarto i primi resto - 1 bit spenti della parola
+		for (int i = 1; i < resto; i++)
+			liberi &= liberi - 1;
+		return 2 * ((parola << 6) + Long.numberOfTrailingZeros(liberi)) + 1;
+	}
+
+	/**
+	 * Estende la capacità di questo crivello almeno fino a {@code n}. Viene
+	 * setacciata solo la parte nuova della tabella, con i primi base letti dal
+	 * crivello stesso, quindi il costo è proporzionale ai numeri aggiunti. Se la
+	 * capacità è già sufficiente non succede niente.
+	 * 
+	 * @param n la capacità minima richiesta
+	 */
+	public void ensureCapacity(int n) {
+		if (n <= capacity)
+			return;
+		// I primi base devono essere già nel crivello
+		int radice = (int) Setaccio.radice(n);
+		if (radice > capacity)
+			ensureCapacity(radice);
+		int nuoviBit = (int) (((long) n + 1) >>> 1);
+		int nuoveParole = (nuoviBit + 63) >>> 6;
+		// Allungo la tabella almeno del doppio per ammortizzare le copie
+		if (nuoveParole > composti.length)
+			composti = Arrays.copyOf(composti,
+					Math.max(nuoveParole, (int) Math.min(2L * composti.length, MASSIMO_PAROLE)));
+		// Ricomincio dall'inizio dell'ultima parola, così che i segmenti restino
+		// allineati alle parole anche in parallelo
+		int da = numeroBit & ~63;
+		Arrays.fill(composti, da >>> 6, composti.length, 0L);
+		Setaccio.setacciaInParallelo(composti, 0, da, nuoviBit, primiDispari(radice), dimensioneSegmento,
+				parallelismo);
+		capacity = n;
+		numeroBit = nuoviBit;
+		segnaEsterni();
+		// La directory non è più valida
+		rango = null;
+	}
+
+	/**
+	 * Attiva o disattiva la crescita automatica di questo crivello. Quando è attiva
+	 * {@link #isPrime(int)} e {@link #nextPrime(int)} accettano anche numeri
+	 * maggiori della capacità: il crivello viene esteso con
+	 * {@link #ensureCapacity(int)} almeno fino al doppio della capacità attuale,
+	 * così che il costo delle estensioni sia ammortizzato. Inizialmente la
+	 * crescita automatica non è attiva.
+	 * 
+	 * @param crescitaAutomatica true per attivare la crescita automatica
+	 */
+	public void setCrescitaAutomatica(boolean crescitaAutomatica) {
+		this.crescitaAutomatica = crescitaAutomatica;
+	}
+
+	/**
+	 * Indica se la crescita automatica di questo crivello è attiva.
+	 * 
+	 * @return true se la crescita automatica è attiva
+	 */
+	public boolean isCrescitaAutomatica() {
+		return crescitaAutomatica;
+	}
+
+	/**
+	 * Salva questo crivello su file in un formato binario versionato, che può
+	 * essere riaperto senza ricostruire il crivello con {@link CrivelloMappato}.
+	 * Se il file esiste viene sovrascritto.
+	 * 
+	 * @param file il file in cui salvare il crivello
+	 * @throws IOException se il file non può essere scritto
+	 */
+	public void salva(Path file) throws IOException {
+		FileChannel canale = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING);
+		try {
+			ByteBuffer buffer = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+			int parole = (numeroBit + 63) >>> 6;
+			buffer.putInt(CrivelloMappato.MAGICO).putInt(CrivelloMappato.VERSIONE).putInt(capacity)
+					.putInt(parole);
+			for (int i = 0; i < parole; i++) {
+				// Svuoto il buffer quando è pieno
+				if (!buffer.hasRemaining())
+					scrivi(canale, buffer);
+				buffer.putLong(composti[i]);
+			}
+			scrivi(canale, buffer);
+		} finally {
+			canale.close();
+		}
+	}
+
+	// Scrive tutto il contenuto del buffer sul canale e lo svuota
+	private static void scrivi(FileChannel canale, ByteBuffer buffer) throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining())
+			canale.write(buffer);
+		buffer.clear();
+	}
+
+	// Controlla se il bit di indice i è acceso
+	private boolean isComposto(int i) {
+		return (composti[i >>> 6] & (1L << i)) != 0;
+	}
+
+	/*
+	 * Restituisce l'indice del primo bit spento a partire dall'indice i, oppure -1
+	 * se non ce ne sono. I bit oltre la capacità sono sempre accesi.
+	 */
+	private int prossimoPrimo(int i) {
+		return (int) Setaccio.prossimoSpento(composti, 0, i, numeroBit);
+	}
+
+	// Conta i bit spenti con indice minore di fine
+	private int contaPrimiDispari(int fine) {
+		int[] rango = directory();
+		int parola = fine >>> 6;
+		int conteggio = rango[fine >>> 10];
+		for (int i = (fine >>> 10) << 4; i < parola; i++)
+			conteggio += Long.bitCount(~composti[i]);
+		if ((fine & 63) != 0)
+			conteggio += Long.bitCount(~composti[parola] & ((1L << fine) - 1));
+		return conteggio;
+	}
+
+	// Restituisce la directory per rank e select, costruendola se necessario
+	private int[] directory() {
+		if (rango == null) {
+			int[] nuovo = new int[(composti.length >>> 4) + 1];
+			int conteggio = 0;
+			for (int i = 0; i < composti.length; i++) {
+				if ((i & 15) == 0)
+					nuovo[i >>> 4] = conteggio;
+				conteggio += Long.bitCount(~composti[i]);
+			}
+			if ((composti.length & 15) == 0)
+				nuovo[composti.length >>> 4] = conteggio;
+			rango = nuovo;
+		}
+		return rango;
+	}
+
+	// Estende il crivello fino almeno a n, raddoppiandone la capacità se possibile
+	private void cresci(int n) {
+		ensureCapacity((int) Math.max(n, Math.min(2L * capacity, Integer.MAX_VALUE)));
+	}
+
+	// Restituisce i primi dispari fino a limite, che deve essere nel crivello
+	private int[] primiDispari(int limite) {
+		int fine = (limite + 1) >>> 1;
+		int quanti = 0;
+		for (int i = prossimoPrimo(1); i != -1 && i < fine; i = prossimoPrimo(i + 1))
+			quanti++;
+		int[] primi = new int[quanti];
+		quanti = 0;
+		for (int i = prossimoPrimo(1); i != -1 && i < fine; i = prossimoPrimo(i + 1))
+			primi[quanti++] = 2 * i + 1;
+		return primi;
+	}
+
+	/*
+	 * Accende il bit del numero 1, che non viene considerato primo nella tabella,
+	 * e tutti i bit che vanno oltre la capacità.
+	 */
+	private void segnaEsterni() {
+		composti[0] |= 1L;
+		int parola = numeroBit >>> 6;
+		if ((numeroBit & 63) != 0)
+			composti[parola++] |= -1L << numeroBit;
+		Arrays.fill(composti, parola, composti.length, -1L);
+	}
+
+	// Creo un metodo per riempire il crivello
+	private void riempimento(int n) {
+		// Un bit per ogni numero dispari da 1 a n
+		numeroBit = (int) (((long) n + 1) >>> 1);
+		composti = new long[(numeroBit + 63) >>> 6];
+		// Setaccio i segmenti con i primi fino alla radice di n
+		Setaccio.setacciaInParallelo(composti, 0, 0, numeroBit, Setaccio.primiBase((int) Setaccio.radice(n)),
+				dimensioneSegmento, parallelismo);
+		segnaEsterni();
+	}
+
+	/*
+	 * Spliterator sui numeri primi con indice in [da, a) di una tabella di bit,
+	 * preceduti da 2 se richiesto. Si divide a metà sulle parole della tabella.
+	 */
+	private static final class SpliteratorPrimi implements Spliterator.OfInt {
+		// Sotto questa ampiezza in bit lo spliterator non viene più diviso
+		private static final int MINIMO_DIVISIBILE = 1 << 12;
+		private final long[] composti;
+		private int da;
+		private final int a;
+		private boolean due;
+
+		SpliteratorPrimi(long[] composti, int da, int a, boolean due) {
+			this.composti = composti;
+			this.da = da;
+			this.a = a;
+			this.due = due;
+		}
+
+		@Override
+		public boolean tryAdvance(IntConsumer azione) {
+			if (due) {
+				due = false;
+				azione.accept(2);
+				return true;
+			}
+			long i = Setaccio.prossimoSpento(composti, 0, da, a);
+			if (i == -1) {
+				da = a;
 				return false;
-		// Se non è divisibile per nessun altro numero apparte 1 e se stesso è primo
-		return true;
-	}
-
-// Creo un metodo per riempire il crivello
-	private TreeSet<Integer> riempimento(int n) {
-		// Creo un nuovo TreeSet
-		TreeSet<Integer> riempi = new TreeSet<Integer>();
-		for (int i = 2; i <= n; i++) {
-			// Se i è primo viene aggiunto al crivello
-			if (isPrime(i))
-				riempi.add(i);
-			// i è uguale al numero primo più grande nel crivello
-			if (i == n)
-				biggestNumberPrime = i;
+			}
+			da = (int) i + 1;
+			azione.accept(2 * (int) i + 1);
+			return true;
+		}
+
+		@Override
+		public void forEachRemaining(IntConsumer azione) {
+			if (due) {
+				due = false;
+				azione.accept(2);
+			}
+			if (da >= a)
+				return;
+			// Scorro le parole e per ognuna i suoi bit spenti
+			int parola = da >>> 6;
+			long liberi = ~composti[parola] & (-1L << da);
+			int ultima = (a - 1) >>> 6;
+			while (true) {
+				if (parola == ultima && (a & 63) != 0)
+					liberi &= (1L << a) - 1;
+				while (liberi != 0) {
+					azione.accept(2 * ((parola << 6) + Long.numberOfTrailingZeros(liberi)) + 1);
+					liberi &= liberi - 1;
+				}
+				if (parola == ultima)
+					break;
+				liberi = ~composti[++parola];
+			}
+			da = a;
+		}
+
+		@Override
+		public Spliterator.OfInt trySplit() {
+			// Divido sul confine di una parola
+			int mezzo = (int) (((long) da + a) >>> 1) & ~63;
+			if (a - da < MINIMO_DIVISIBILE || mezzo <= da)
+				return null;
+			SpliteratorPrimi prima = new SpliteratorPrimi(composti, da, mezzo, due);
+			da = mezzo;
+			due = false;
+			return prima;
+		}
+
+		@Override
+		public long estimateSize() {
+			// Stima per eccesso: un primo per ogni bit
+			return (long) a - da + (due ? 1 : 0);
+		}
+
+		@Override
+		public int characteristics() {
+			return ORDERED | DISTINCT | SORTED | NONNULL | IMMUTABLE;
+		}
+
+		@Override
+		public Comparator<? super Integer> getComparator() {
+			// Ordine naturale
+			return null;
 		}
-		return riempi;
 	}
-}
\ No newline at end of file
+}
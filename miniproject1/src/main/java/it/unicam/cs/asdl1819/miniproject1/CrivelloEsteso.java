@@ -0,0 +1,267 @@
+package it.unicam.cs.asdl1819.miniproject1;
+
+import java.io.Closeable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Crivello di Eratostene con capacità {@code long}, per intervalli che non
+ * possono essere indicizzati da un array Java. Come in
+ * {@link CrivelloDiEratostene} la tabella rappresenta solo i numeri dispari, un
+ * bit ciascuno, ma è memorizzata fuori dallo heap in buffer diretti da al più 1
+ * GiB: il garbage collector non deve mai visitarla, quindi le pause restano
+ * costanti anche con decine di gigabit di tabella. Sullo heap resta solo la
+ * directory dei conteggi, un {@code long} ogni 32768 bit.
+ *
+ * La memoria diretta della JVM è limitata per impostazione predefinita al
+ * valore di {@code -Xmx}: un crivello fino a circa {@code 10^11} occupa circa
+ * 6,25 GB e richiede quindi di avviare la JVM con
+ * {@code -XX:MaxDirectMemorySize} abbastanza grande, altrimenti la costruzione
+ * fallisce con {@code OutOfMemoryError: Direct buffer memory}.
+ *
+ * I buffer vanno liberati con {@link #close()} appena il crivello non serve
+ * più; se non viene chiuso vengono liberati solo quando il garbage collector
+ * raccoglie il crivello, che può accadere molto più tardi.
+ *
+ * Il comportamento dei metodi è lo stesso di {@link CrivelloDiEratostene}.
+ *
+ * @author Alex Citeroni
+ *
+ */
+public class CrivelloEsteso implements Closeable {
+	// Logaritmo del numero di parole di un buffer: 2^27 parole sono 1 GiB
+	private static final int LOG_PAROLE_PER_PEZZO = 27;
+	// Logaritmo del numero di parole di un blocco della directory
+	private static final int LOG_PAROLE_PER_BLOCCO = 9;
+	// Libera subito un buffer diretto, o null se la JVM non lo consente
+	private static final Method LIBERA;
+	private static final Object UNSAFE;
+
+	static {
+		Method libera = null;
+		Object unsafe = null;
+		try {
+			Class<?> classe = Class.forName("sun.misc.Unsafe");
+			Field campo = classe.getDeclaredField("theUnsafe");
+			campo.setAccessible(true);
+			unsafe = campo.get(null);
+			libera = classe.getMethod("invokeCleaner", ByteBuffer.class);
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			// Senza invokeCleaner i buffer vengono liberati dal garbage collector
+			libera = null;
+		}
+		LIBERA = libera;
+		UNSAFE = unsafe;
+	}
+
+	private long capacity;
+	// Numero di bit significativi della tabella
+	private long numeroBit;
+	// Numero totale di parole della tabella
+	private long numeroParole;
+	// La tabella di bit divisa in buffer diretti
+	private ByteBuffer[] pezzi;
+	private int logParolePerPezzo;
+	// rango[b] è il numero di bit spenti nei blocchi che precedono il blocco b
+	private long[] rango;
+
+	/**
+	 * Costruisce il crivello fino a un certo numero. Il numero deve essere almeno
+	 * 2.
+	 *
+	 * @param n numero di entrate nel crivello
+	 *
+	 * @throws IllegalArgumentException se il numero {@code n} è minore di
+	 *                                  {@code 2} o maggiore di
+	 *                                  {@link SegmentoDiCrivello#MASSIMO}
+	 */
+	public CrivelloEsteso(long n) {
+		this(n, LOG_PAROLE_PER_PEZZO);
+	}
+
+	/*
+	 * Costruisce il crivello con buffer di 2^logParolePerPezzo parole. Serve per
+	 * provare la divisione in più buffer con crivelli piccoli.
+	 */
+	CrivelloEsteso(long n, int logParolePerPezzo) {
+		// Verifico che n sia maggiore di 2 e che i primi base siano int
+		if (n < 2 || n > SegmentoDiCrivello.MASSIMO)
+			throw new IllegalArgumentException();
+		this.capacity = n;
+		this.logParolePerPezzo = logParolePerPezzo;
+		riempimento(n);
+	}
+
+	/**
+	 * Restituisce la capacità di questo crivello, cioè il numero massimo di
+	 * entrate.
+	 *
+	 * @return la capacità di questo crivello
+	 */
+	public long getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Controlla se un numero è primo. Può rispondere solo se il numero passato come
+	 * parametro è minore o uguale alla capacità di questo crivello.
+	 *
+	 * @param n il numero da controllare
+	 * @return true se il numero passato è primo
+	 * @throws IllegalArgumentException se il numero passato {@code n} eccede la
+	 *                                  capacità di questo crivello o se è un numero
+	 *                                  minore di 1.
+	 * @throws IllegalStateException    se il crivello è stato chiuso
+	 */
+	public boolean isPrime(long n) {
+		verificaAperto();
+		// Verifico che n sia maggiore di 1 e che n sia minore di capacity
+		if (n < 1 || n > capacity)
+			throw new IllegalArgumentException();
+		// 1 e 2 sono numeri primi
+		if (n == 1 || n == 2)
+			return true;
+		// Gli altri numeri pari non sono primi
+		if (n % 2 == 0)
+			return false;
+		long i = n >>> 1;
+		return (parola(i >>> 6) & (1L << i)) == 0;
+	}
+
+	/**
+	 * Cerca nel crivello il numero primo successivo a un numero dato.
+	 *
+	 * @param n il numero da cui partire
+	 * @return il numero primo successivo a {@code n} in questo crivello oppure -1
+	 *         se in questo crivello non ci sono numeri primi maggiori di {@code n}
+	 * @throws IllegalArgumentException se il numero passato {@code n} eccede la
+	 *                                  capacità di questo crivello o se è un numero
+	 *                                  minore di 1.
+	 * @throws IllegalStateException    se il crivello è stato chiuso
+	 */
+	public long nextPrime(long n) {
+		verificaAperto();
+		// Verifico che n sia maggiore di 1 e che n sia minore di capacity
+		if (n < 1 || n > capacity)
+			throw new IllegalArgumentException();
+		// 2 è l'unico primo pari
+		if (n < 2)
+			return 2;
+		long i = (n + 1) >>> 1;
+		if (i >= numeroBit)
+			return -1;
+		long w = i >>> 6;
+		// Scarto i bit che precedono i nella prima parola
+		long liberi = ~parola(w) & (-1L << i);
+		while (liberi == 0) {
+			if (++w == numeroParole)
+				return -1;
+			liberi = ~parola(w);
+		}
+		return 2 * ((w << 6) + Long.numberOfTrailingZeros(liberi)) + 1;
+	}
+
+	/**
+	 * Conta i numeri primi minori o uguali a un numero dato. Per convenzione il
+	 * numero {@code 1} non viene contato.
+	 *
+	 * @param n il numero fino a cui contare
+	 * @return il numero di primi minori o uguali a {@code n}
+	 * @throws IllegalArgumentException se il numero passato {@code n} eccede la
+	 *                                  capacità di questo crivello o se è un numero
+	 *                                  minore di 1.
+	 * @throws IllegalStateException    se il crivello è stato chiuso
+	 */
+	public long primeCount(long n) {
+		verificaAperto();
+		// Verifico che n sia maggiore di 1 e che n sia minore di capacity
+		if (n < 1 || n > capacity)
+			throw new IllegalArgumentException();
+		if (n < 2)
+			return 0;
+		// Conto 2 e i bit spenti con indice minore di quello successivo a n
+		long fine = (n + 1) >>> 1;
+		long w = fine >>> 6;
+		long conteggio = 1 + rango[(int) (w >>> LOG_PAROLE_PER_BLOCCO)];
+		for (long i = w >>> LOG_PAROLE_PER_BLOCCO << LOG_PAROLE_PER_BLOCCO; i < w; i++)
+			conteggio += Long.bitCount(~parola(i));
+		if ((fine & 63) != 0)
+			conteggio += Long.bitCount(~parola(w) & ((1L << fine) - 1));
+		return conteggio;
+	}
+
+	/**
+	 * Libera subito la memoria fuori dallo heap occupata dalla tabella. Dopo la
+	 * chiusura il crivello non può più essere interrogato; chiudere un crivello
+	 * già chiuso non ha effetto. Non va chiamato mentre altri thread stanno
+	 * interrogando il crivello.
+	 */
+	@Override
+	public void close() {
+		ByteBuffer[] daLiberare = pezzi;
+		if (daLiberare == null)
+			return;
+		pezzi = null;
+		if (LIBERA == null)
+			return;
+		try {
+			for (ByteBuffer pezzo : daLiberare)
+				LIBERA.invoke(UNSAFE, pezzo);
+		} catch (ReflectiveOperationException e) {
+			// I buffer rimasti verranno liberati dal garbage collector
+		}
+	}
+
+	private void verificaAperto() {
+		if (pezzi == null)
+			throw new IllegalStateException("Crivello chiuso");
+	}
+
+	// Legge la parola di indice w della tabella
+	private long parola(long w) {
+		return pezzi[(int) (w >>> logParolePerPezzo)].getLong((int) (w & ((1L << logParolePerPezzo) - 1)) << 3);
+	}
+
+	// Creo un metodo per riempire il crivello
+	private void riempimento(long n) {
+		numeroBit = (n + 1) >>> 1;
+		numeroParole = (numeroBit + 63) >>> 6;
+		long parolePerPezzo = 1L << logParolePerPezzo;
+		pezzi = new ByteBuffer[(int) ((numeroParole + parolePerPezzo - 1) >>> logParolePerPezzo)];
+		for (int k = 0; k < pezzi.length; k++) {
+			long parole = Math.min(parolePerPezzo, numeroParole - k * parolePerPezzo);
+			pezzi[k] = ByteBuffer.allocateDirect((int) (parole << 3)).order(ByteOrder.nativeOrder());
+		}
+		rango = new long[(int) (numeroParole >>> LOG_PAROLE_PER_BLOCCO) + 1];
+		// Setaccio un segmento alla volta sullo heap e lo copio nei buffer
+		int[] primi = Setaccio.primiBase((int) Setaccio.radice(n));
+		long[] segmento = new long[Setaccio.DIMENSIONE_SEGMENTO >>> 3];
+		long conteggio = 0;
+		for (long w = 0; w < numeroParole; w += segmento.length) {
+			int parole = (int) Math.min(segmento.length, numeroParole - w);
+			long da = w << 6;
+			Arrays.fill(segmento, 0L);
+			Setaccio.setaccia(segmento, da, da, Math.min(numeroBit, da + ((long) parole << 6)), primi);
+			// 1 non viene considerato primo nella tabella
+			if (w == 0)
+				segmento[0] |= 1L;
+			// Accendo i bit dell'ultima parola che vanno oltre la capacità
+			if (w + parole == numeroParole && (numeroBit & 63) != 0)
+				segmento[parole - 1] |= -1L << numeroBit;
+			for (int i = 0; i < parole; i++) {
+				long indice = w + i;
+				// All'inizio di ogni blocco registro i bit spenti che lo precedono
+				if ((indice & ((1 << LOG_PAROLE_PER_BLOCCO) - 1)) == 0)
+					rango[(int) (indice >>> LOG_PAROLE_PER_BLOCCO)] = conteggio;
+				conteggio += Long.bitCount(~segmento[i]);
+				pezzi[(int) (indice >>> logParolePerPezzo)].putLong((int) (indice & (parolePerPezzo - 1)) << 3,
+						segmento[i]);
+			}
+		}
+		if ((numeroParole & ((1 << LOG_PAROLE_PER_BLOCCO) - 1)) == 0)
+			rango[rango.length - 1] = conteggio;
+	}
+}
@@ -0,0 +1,167 @@
+package it.unicam.cs.asdl1819.miniproject1;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Un crivello di Eratostene salvato su file con
+ * {@link CrivelloDiEratostene#salva(Path)} e riaperto mappandolo in memoria. La
+ * tabella di bit non viene letta né copiata nello heap: le interrogazioni
+ * leggono direttamente le pagine mappate, quindi l'apertura costa un tempo
+ * costante e più processi che aprono lo stesso file condividono la stessa cache
+ * delle pagine del sistema operativo.
+ *
+ * Il file è composto da un'intestazione di {@value #DIMENSIONE_INTESTAZIONE}
+ * byte, con il numero magico, la versione del formato, la capacità e il numero
+ * di parole della tabella, seguita dalle parole della tabella. Tutti i valori
+ * sono little endian.
+ *
+ * Il comportamento dei metodi è lo stesso di {@link CrivelloDiEratostene}.
+ *
+ * @author Alex Citeroni
+ *
+ */
+public class CrivelloMappato {
+	/**
+	 * Numero magico all'inizio di ogni file di crivello.
+	 */
+	static final int MAGICO = 0x43524956;
+	/**
+	 * Versione del formato del file.
+	 */
+	static final int VERSIONE = 1;
+	/**
+	 * Dimensione in byte dell'intestazione del file.
+	 */
+	static final int DIMENSIONE_INTESTAZIONE = 16;
+
+	private int capacity;
+	// Numero di bit significativi della tabella
+	private int numeroBit;
+	// Tabella di bit dei numeri dispari, letta direttamente dal file mappato
+	private LongBuffer composti;
+
+	/**
+	 * Apre un crivello salvato su file mappandolo in memoria in sola lettura.
+	 *
+	 * @param file il file da aprire
+	 * @throws IOException se il file non può essere letto o non contiene un
+	 *                     crivello in un formato supportato
+	 */
+	public CrivelloMappato(Path file) throws IOException {
+		FileChannel canale = FileChannel.open(file, StandardOpenOption.READ);
+		try {
+			long dimensione = canale.size();
+			if (dimensione < DIMENSIONE_INTESTAZIONE)
+				throw new IOException("File di crivello troncato: " + file);
+			// La mappatura resta valida anche dopo la chiusura del canale
+			MappedByteBuffer mappa = canale.map(FileChannel.MapMode.READ_ONLY, 0, dimensione);
+			mappa.order(ByteOrder.LITTLE_ENDIAN);
+			if (mappa.getInt(0) != MAGICO)
+				throw new IOException("Il file non contiene un crivello: " + file);
+			if (mappa.getInt(4) != VERSIONE)
+				throw new IOException("Versione del crivello non supportata: " + mappa.getInt(4));
+			this.capacity = mappa.getInt(8);
+			this.numeroBit = (int) (((long) capacity + 1) >>> 1);
+			int parole = mappa.getInt(12);
+			if (capacity < 2 || parole != (numeroBit + 63) >>> 6
+					|| dimensione != DIMENSIONE_INTESTAZIONE + 8L * parole)
+				throw new IOException("File di crivello danneggiato: " + file);
+			mappa.position(DIMENSIONE_INTESTAZIONE);
+			this.composti = mappa.slice().order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+		} finally {
+			canale.close();
+		}
+	}
+
+	/**
+	 * Restituisce la capacità di questo crivello, cioè il numero massimo di
+	 * entrate.
+	 *
+	 * @return la capacità di questo crivello
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Controlla se un numero è primo. Può rispondere solo se il numero passato come
+	 * parametro è minore o uguale alla capacità di questo crivello.
+	 *
+	 * @param n il numero da controllare
+	 * @return true se il numero passato è primo
+	 * @throws IllegalArgumentException se il numero passato {@code n} eccede la
+	 *                                  capacità di questo crivello o se è un numero
+	 *                                  minore di 1.
+	 */
+	public boolean isPrime(int n) {
+		// Verifico che n sia maggiore di 1 e che n sia minore di capacity
+		if (n < 1 || n > capacity)
+			throw new IllegalArgumentException();
+		// 1 e 2 sono numeri primi
+		if (n == 1 || n == 2)
+			return true;
+		// Gli altri numeri pari non sono primi
+		if (n % 2 == 0)
+			return false;
+		int i = n >>> 1;
+		return (composti.get(i >>> 6) & (1L << i)) == 0;
+	}
+
+	/**
+	 * Cerca nel crivello il numero primo successivo a un numero dato.
+	 *
+	 * @param n il numero da cui partire
+	 * @return il numero primo successivo a {@code n} in questo crivello oppure -1
+	 *         se in questo crivello non ci sono numeri primi maggiori di {@code n}
+	 * @throws IllegalArgumentException se il numero passato {@code n} eccede la
+	 *                                  capacità di questo crivello o se è un numero
+	 *                                  minore di 1.
+	 */
+	public int nextPrime(int n) {
+		// Verifico che n sia maggiore di 1 e che n sia minore di capacity
+		if (n < 1 || n > capacity)
+			throw new IllegalArgumentException();
+		// 2 è l'unico primo pari
+		if (n < 2)
+			return 2;
+		int indice = prossimoPrimo((n + 1) >>> 1);
+		return indice == -1 ? -1 : 2 * indice + 1;
+	}
+
+	/**
+	 * Restituisce l'insieme dei numeri primi di questo crivello. Per convenzione
+	 * il numero primo {@code 1} non viene incluso nel risultato.
+	 *
+	 * @return l'insieme dei numeri primi di questo crivello.
+	 */
+	public SortedSet<Integer> getPrimes() {
+		TreeSet<Integer> primes = new TreeSet<Integer>();
+		primes.add(2);
+		for (int i = prossimoPrimo(1); i != -1; i = prossimoPrimo(i + 1))
+			primes.add(2 * i + 1);
+		return primes;
+	}
+
+	// Restituisce l'indice del primo bit spento a partire dall'indice i, o -1
+	private int prossimoPrimo(int i) {
+		if (i >= numeroBit)
+			return -1;
+		int parola = i >>> 6;
+		// Scarto i bit che precedono i nella prima parola
+		long liberi = ~composti.get(parola) & (-1L << i);
+		while (liberi == 0) {
+			if (++parola == composti.limit())
+				return -1;
+			liberi = ~composti.get(parola);
+		}
+		return (parola << 6) + Long.numberOfTrailingZeros(liberi);
+	}
+}
@@ -1,5 +1,10 @@
 package it.unicam.cs.asdl1819.miniproject1;
 
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
 /**
  * Un fattorizzatore è un agente che fattorizza un qualsiasi numero naturale nei
  * sui fattori primi.
@@ -8,6 +13,45 @@ package it.unicam.cs.asdl1819.miniproject1;
  *
  */
 public class Factoriser {
+	// Limite dei primi usati per le divisioni successive
+	private static final int LIMITE_DIVISIONI = 1024;
+	// I primi dispari fino a LIMITE_DIVISIONI
+	private static final int[] PRIMI_PICCOLI = Setaccio.primiBase(LIMITE_DIVISIONI);
+	// Numero di passi del metodo rho tra un calcolo del massimo comun divisore e
+	// il successivo
+	private static final int PASSI_MCD = 128;
+	// Certezza richiesta al test di primalità dei BigInteger
+	private static final int CERTEZZA = 64;
+	// Massimo numero di fattori primi distinti di un long positivo: il prodotto
+	// dei primi 16 numeri primi supera 2^63
+	private static final int MASSIMO_FATTORI = 15;
+	// Numero di numeri fattorizzati da ogni compito delle fattorizzazioni in blocco
+	private static final int NUMERI_PER_BLOCCO = 4096;
+
+	// Tabella dei minimi fattori primi, se è stata richiesta
+	private TabellaFattoriMinimi tabella;
+
+	/**
+	 * Crea un fattorizzatore senza tabella, che procede per divisioni successive
+	 * per i fattori piccoli e con il metodo rho di Pollard per gli altri.
+	 */
+	public Factoriser() {
+		this.tabella = null;
+	}
+
+	/**
+	 * Crea un fattorizzatore che usa una tabella dei minimi fattori primi fino a
+	 * un limite. I numeri entro il limite vengono fattorizzati leggendo
+	 * ripetutamente la tabella, con un passo per ogni fattore primo; quelli oltre
+	 * il limite come senza tabella.
+	 * 
+	 * @param limite il numero più grande della tabella
+	 * @throws IllegalArgumentException se il limite è minore di {@code 2}
+	 */
+	public Factoriser(int limite) {
+		this.tabella = new TabellaFattoriMinimi(limite);
+	}
+
 	/**
 	 * Fattorizza un numero restituendo il multinsieme dei suoi fattori primi. La
 	 * molteplicità di ogni fattore primo esprime quante volte il fattore stesso
@@ -24,13 +68,468 @@ public class Factoriser {
 		if (n < 1)
 			throw new IllegalArgumentException();
 		MyMultiset<Integer> factors = new MyMultiset<Integer>();
-		for (int i = 2; i <= n / i; i++)
-			while (n % i == 0) {
-				factors.add(i);
-				n /= i;
+		long[] primi = new long[MASSIMO_FATTORI];
+		int[] esponenti = new int[MASSIMO_FATTORI];
+		int quanti = fattorizza(n, primi, esponenti);
+		for (int k = 0; k < quanti; k++)
+			factors.add((int) primi[k], esponenti[k]);
+		return factors;
+	}
+
+	/**
+	 * Fattorizza un numero {@code long} restituendo il multinsieme dei suoi fattori
+	 * primi, con le stesse convenzioni di {@link #getFactors(int)}. I fattori fino
+	 * a {@value #LIMITE_DIVISIONI} vengono trovati per divisioni successive; ciò
+	 * che resta viene riconosciuto primo con il test di Miller-Rabin oppure
+	 * spezzato con il metodo rho di Pollard nella variante di Brent. Il tempo
+	 * dipende dalla radice del secondo fattore primo più grande, quindi anche i
+	 * prodotti di due primi grandi si fattorizzano in pochi millisecondi.
+	 * 
+	 * @param n un numero intero da fattorizzare
+	 * @return il multinsieme dei fattori primi di n
+	 * @throws IllegalArgumentException se si chiede di fattorizzare un numero
+	 *                                  minore di 1.
+	 */
+	public Multiset<Long> getFactors(long n) {
+		if (n < 1)
+			throw new IllegalArgumentException();
+		MyMultiset<Long> factors = new MyMultiset<Long>();
+		long[] primi = new long[MASSIMO_FATTORI];
+		int[] esponenti = new int[MASSIMO_FATTORI];
+		int quanti = fattorizza(n, primi, esponenti);
+		for (int k = 0; k < quanti; k++)
+			factors.add(primi[k], esponenti[k]);
+		return factors;
+	}
+
+	/**
+	 * Fattorizza un numero {@code long} come {@link #getFactors(long)}, ma
+	 * restituisce il risultato in forma compatta e immutabile.
+	 * 
+	 * @param n un numero intero da fattorizzare
+	 * @return la fattorizzazione di n
+	 * @throws IllegalArgumentException se si chiede di fattorizzare un numero
+	 *                                  minore di 1.
+	 */
+	public Fattorizzazione getFattorizzazione(long n) {
+		if (n < 1)
+			throw new IllegalArgumentException();
+		long[] primi = new long[MASSIMO_FATTORI];
+		int[] esponenti = new int[MASSIMO_FATTORI];
+		int quanti = fattorizza(n, primi, esponenti);
+		return new Fattorizzazione(Arrays.copyOf(primi, quanti), Arrays.copyOf(esponenti, quanti));
+	}
+
+	/**
+	 * Fattorizza un numero {@code BigInteger} restituendo il multinsieme dei suoi
+	 * fattori primi, con le stesse convenzioni di {@link #getFactors(int)}. I
+	 * numeri che stanno in un {@code long} vengono fattorizzati con
+	 * {@link #getFactors(long)}; per gli altri si usano le divisioni successive,
+	 * il test di primalità di {@link BigInteger#isProbablePrime(int)} e il metodo
+	 * rho di Pollard. Anche qui il tempo dipende dalla radice del secondo fattore
+	 * primo più grande.
+	 * 
+	 * @param n un numero intero da fattorizzare
+	 * @return il multinsieme dei fattori primi di n
+	 * @throws IllegalArgumentException se si chiede di fattorizzare un numero
+	 *                                  minore di 1.
+	 * @throws NullPointerException     se il numero è nullo
+	 */
+	public Multiset<BigInteger> getFactors(BigInteger n) {
+		if (n.signum() < 1)
+			throw new IllegalArgumentException();
+		MyMultiset<BigInteger> factors = new MyMultiset<BigInteger>();
+		if (n.bitLength() < 64) {
+			long[] primi = new long[MASSIMO_FATTORI];
+			int[] esponenti = new int[MASSIMO_FATTORI];
+			int quanti = fattorizza(n.longValue(), primi, esponenti);
+			for (int k = 0; k < quanti; k++)
+				factors.add(BigInteger.valueOf(primi[k]), esponenti[k]);
+			return factors;
+		}
+		// Tolgo i fattori 2 in un colpo solo
+		int zeri = n.getLowestSetBit();
+		if (zeri > 0)
+			factors.add(BigInteger.valueOf(2), zeri);
+		n = n.shiftRight(zeri);
+		for (int p : PRIMI_PICCOLI) {
+			BigInteger primo = BigInteger.valueOf(p);
+			BigInteger[] divisione = n.divideAndRemainder(primo);
+			int esponente = 0;
+			while (divisione[1].signum() == 0) {
+				n = divisione[0];
+				esponente++;
+				divisione = n.divideAndRemainder(primo);
 			}
+			if (esponente > 0)
+				factors.add(primo, esponente);
+		}
+		if (!n.equals(BigInteger.ONE))
+			scomponi(n, factors);
+		return factors;
+	}
+
+	/**
+	 * Fattorizza in parallelo tutti i numeri di un array. Il risultato è
+	 * memorizzato per colonne e contiene i fattori dei numeri nello stesso ordine
+	 * dell'array, quindi non viene creato alcun multinsieme. L'array viene diviso
+	 * in blocchi di numeri consecutivi che vengono fattorizzati su un
+	 * {@link ForkJoinPool} con il parallelismo indicato.
+	 * 
+	 * @param numeri       i numeri da fattorizzare
+	 * @param parallelismo il numero di thread da usare
+	 * @return le fattorizzazioni dei numeri
+	 * @throws IllegalArgumentException se uno dei numeri è minore di 1 o se il
+	 *                                  parallelismo non è positivo
+	 * @throws NullPointerException     se l'array è nullo
+	 */
+	public Fattorizzazioni getFactors(int[] numeri, int parallelismo) {
+		for (int n : numeri)
+			if (n < 1)
+				throw new IllegalArgumentException();
+		return fattorizzaInBlocco(numeri, null, numeri.length, parallelismo);
+	}
+
+	/**
+	 * Fattorizza in parallelo tutti i numeri di un array, come
+	 * {@link #getFactors(int[], int)}.
+	 * 
+	 * @param numeri       i numeri da fattorizzare
+	 * @param parallelismo il numero di thread da usare
+	 * @return le fattorizzazioni dei numeri
+	 * @throws IllegalArgumentException se uno dei numeri è minore di 1 o se il
+	 *                                  parallelismo non è positivo
+	 * @throws NullPointerException     se l'array è nullo
+	 */
+	public Fattorizzazioni getFactors(long[] numeri, int parallelismo) {
+		for (long n : numeri)
+			if (n < 1)
+				throw new IllegalArgumentException();
+		return fattorizzaInBlocco(null, numeri, numeri.length, parallelismo);
+	}
+
+	/*
+	 * Fattorizza i numeri dell'array non nullo tra interi e lunghi. Ogni blocco
+	 * scrive i propri fattori in array suoi e il numero di fattori di ogni numero
+	 * in quanti; alla fine le posizioni di inizio si ottengono sommando i
+	 * conteggi e i blocchi vengono copiati uno dopo l'altro.
+	 */
+	private Fattorizzazioni fattorizzaInBlocco(int[] interi, long[] lunghi, int lunghezza, int parallelismo) {
+		if (parallelismo < 1)
+			throw new IllegalArgumentException();
+		int blocchi = (lunghezza + NUMERI_PER_BLOCCO - 1) / NUMERI_PER_BLOCCO;
+		int[] quanti = new int[lunghezza];
+		long[][] primiDeiBlocchi = new long[blocchi][];
+		int[][] esponentiDeiBlocchi = new int[blocchi][];
+		CompitoFattorizzazione compito = new CompitoFattorizzazione(interi, lunghi, quanti, primiDeiBlocchi,
+				esponentiDeiBlocchi, 0, blocchi);
+		if (parallelismo == 1) {
+			for (int b = 0; b < blocchi; b++)
+				compito.fattorizzaBlocco(b);
+		} else {
+			ForkJoinPool pool = new ForkJoinPool(parallelismo);
+			try {
+				pool.invoke(compito);
+			} finally {
+				pool.shutdown();
+			}
+		}
+		int[] inizi = new int[lunghezza + 1];
+		for (int i = 0; i < lunghezza; i++)
+			inizi[i + 1] = inizi[i] + quanti[i];
+		long[] primi = new long[inizi[lunghezza]];
+		int[] esponenti = new int[inizi[lunghezza]];
+		for (int b = 0; b < blocchi; b++) {
+			int inizio = inizi[b * NUMERI_PER_BLOCCO];
+			int fine = inizi[Math.min(lunghezza, (b + 1) * NUMERI_PER_BLOCCO)];
+			System.arraycopy(primiDeiBlocchi[b], 0, primi, inizio, fine - inizio);
+			System.arraycopy(esponentiDeiBlocchi[b], 0, esponenti, inizio, fine - inizio);
+		}
+		return new Fattorizzazioni(inizi, primi, esponenti);
+	}
+
+	/*
+	 * Scrive i fattori primi distinti di n, in ordine crescente, e i rispettivi
+	 * esponenti negli array passati, che devono avere almeno MASSIMO_FATTORI
+	 * posizioni. Restituisce il numero di fattori distinti.
+	 */
+	private int fattorizza(long n, long[] primi, int[] esponenti) {
+		int quanti = 0;
+		// Tolgo i fattori 2 in un colpo solo
+		int zeri = Long.numberOfTrailingZeros(n);
+		if (zeri > 0) {
+			primi[quanti] = 2;
+			esponenti[quanti++] = zeri;
+		}
+		n >>>= zeri;
+		if (tabella != null && n <= tabella.getLimite()) {
+			// Con la tabella i fattori escono già in ordine crescente
+			while (n > 1) {
+				int p = tabella.fattoreMinimo((int) n);
+				int esponente = 0;
+				do {
+					n /= p;
+					esponente++;
+				} while (n % p == 0);
+				primi[quanti] = p;
+				esponenti[quanti++] = esponente;
+			}
+			return quanti;
+		}
+		for (int p : PRIMI_PICCOLI) {
+			if ((long) p * p > n)
+				break;
+			if (n % p == 0) {
+				int esponente = 0;
+				do {
+					n /= p;
+					esponente++;
+				} while (n % p == 0);
+				primi[quanti] = p;
+				esponenti[quanti++] = esponente;
+			}
+		}
 		if (n > 1)
+			quanti = scomponi(n, primi, esponenti, quanti);
+		return quanti;
+	}
+
+	/*
+	 * Aggiunge agli array i fattori primi di n, che è dispari e non ha fattori
+	 * minori di LIMITE_DIVISIONI, mantenendo l'ordine crescente. Restituisce il
+	 * nuovo numero di fattori distinti.
+	 */
+	private static int scomponi(long n, long[] primi, int[] esponenti, int quanti) {
+		// Un composto senza fattori piccoli è almeno LIMITE_DIVISIONI al quadrato
+		if (n < LIMITE_DIVISIONI * LIMITE_DIVISIONI || MillerRabin.isPrime(n)) {
+			// Il metodo rho può trovare lo stesso primo più volte
+			int k = quanti;
+			while (k > 0 && primi[k - 1] > n)
+				k--;
+			if (k > 0 && primi[k - 1] == n) {
+				esponenti[k - 1]++;
+				return quanti;
+			}
+			System.arraycopy(primi, k, primi, k + 1, quanti - k);
+			System.arraycopy(esponenti, k, esponenti, k + 1, quanti - k);
+			primi[k] = n;
+			esponenti[k] = 1;
+			return quanti + 1;
+		}
+		long d = rho(n);
+		quanti = scomponi(d, primi, esponenti, quanti);
+		return scomponi(n / d, primi, esponenti, quanti);
+	}
+
+	/*
+	 * Aggiunge i fattori primi di n, che è dispari e non ha fattori minori di
+	 * LIMITE_DIVISIONI.
+	 */
+	private void scomponi(BigInteger n, MyMultiset<BigInteger> factors) {
+		if (n.bitLength() < 64) {
+			long[] primi = new long[MASSIMO_FATTORI];
+			int[] esponenti = new int[MASSIMO_FATTORI];
+			int quanti = scomponi(n.longValue(), primi, esponenti, 0);
+			for (int k = 0; k < quanti; k++)
+				factors.add(BigInteger.valueOf(primi[k]), esponenti[k]);
+			return;
+		}
+		if (n.isProbablePrime(CERTEZZA)) {
 			factors.add(n);
-		return factors;
+			return;
+		}
+		BigInteger d = rho(n);
+		scomponi(d, factors);
+		scomponi(n.divide(d), factors);
+	}
+
+	/*
+	 * Trova un divisore proprio del numero composto dispari n con il metodo rho di
+	 * Pollard, cambiando polinomio finché il ciclo non dà un divisore proprio.
+	 */
+	private static long rho(long n) {
+		Montgomery m = new Montgomery(n);
+		for (long c = 1;; c++) {
+			long d = brent(m, m.verso(c));
+			if (d != n)
+				return d;
+		}
+	}
+
+	/*
+	 * Variante di Brent del metodo rho con il polinomio x^2 + c, tutto nella forma
+	 * di Montgomery. Le differenze vengono moltiplicate tra loro e il massimo comun
+	 * divisore con n viene calcolato ogni PASSI_MCD passi: il fattore R della
+	 * forma di Montgomery è primo con n e non cambia il risultato. Restituisce un
+	 * divisore di n diverso da 1, eventualmente n stesso.
+	 */
+	private static long brent(Montgomery m, long c) {
+		long n = m.modulo();
+		long x = c;
+		long y = c;
+		long salvato = c;
+		long prodotto = m.uno();
+		long g = 1;
+		for (long r = 1; g == 1; r <<= 1) {
+			x = y;
+			for (long i = 0; i < r; i++)
+				y = passo(m, y, c);
+			for (long k = 0; k < r && g == 1; k += PASSI_MCD) {
+				salvato = y;
+				long passi = Math.min(PASSI_MCD, r - k);
+				for (long i = 0; i < passi; i++) {
+					y = passo(m, y, c);
+					prodotto = m.moltiplica(prodotto, x > y ? x - y : y - x);
+				}
+				g = mcd(prodotto, n);
+			}
+		}
+		if (g == n) {
+			// Il prodotto si è annullato: ripeto gli ultimi passi uno alla volta
+			do {
+				salvato = passo(m, salvato, c);
+				g = mcd(x > salvato ? x - salvato : salvato - x, n);
+			} while (g == 1);
+		}
+		return g;
+	}
+
+	// Calcola y^2 + c modulo n nella forma di Montgomery
+	private static long passo(Montgomery m, long y, long c) {
+		long n = m.modulo();
+		long s = m.moltiplica(y, y) + c;
+		// La somma può superare 2^63 e diventare negativa
+		return s < 0 || s >= n ? s - n : s;
+	}
+
+	/*
+	 * Versione del metodo rho per i BigInteger, con la stessa struttura di quella
+	 * per i long.
+	 */
+	private static BigInteger rho(BigInteger n) {
+		for (long c = 1;; c++) {
+			BigInteger d = brent(n, BigInteger.valueOf(c));
+			if (!d.equals(n))
+				return d;
+		}
+	}
+
+	// Variante di Brent del metodo rho per i BigInteger
+	private static BigInteger brent(BigInteger n, BigInteger c) {
+		BigInteger x = c;
+		BigInteger y = c;
+		BigInteger salvato = c;
+		BigInteger prodotto = BigInteger.ONE;
+		BigInteger g = BigInteger.ONE;
+		for (long r = 1; g.equals(BigInteger.ONE); r <<= 1) {
+			x = y;
+			for (long i = 0; i < r; i++)
+				y = y.multiply(y).add(c).mod(n);
+			for (long k = 0; k < r && g.equals(BigInteger.ONE); k += PASSI_MCD) {
+				salvato = y;
+				long passi = Math.min(PASSI_MCD, r - k);
+				for (long i = 0; i < passi; i++) {
+					y = y.multiply(y).add(c).mod(n);
+					prodotto = prodotto.multiply(x.subtract(y).abs()).mod(n);
+				}
+				g = prodotto.gcd(n);
+			}
+		}
+		if (g.equals(n)) {
+			// Il prodotto si è annullato: ripeto gli ultimi passi uno alla volta
+			do {
+				salvato = salvato.multiply(salvato).add(c).mod(n);
+				g = x.subtract(salvato).abs().gcd(n);
+			} while (g.equals(BigInteger.ONE));
+		}
+		return g;
+	}
+
+	/*
+	 * Massimo comun divisore di due numeri non negativi con l'algoritmo binario,
+	 * che usa solo sottrazioni e scorrimenti.
+	 */
+	private static long mcd(long a, long b) {
+		if (a == 0)
+			return b;
+		if (b == 0)
+			return a;
+		int k = Long.numberOfTrailingZeros(a | b);
+		a >>>= Long.numberOfTrailingZeros(a);
+		do {
+			b >>>= Long.numberOfTrailingZeros(b);
+			if (a > b) {
+				long t = a;
+				a = b;
+				b = t;
+			}
+			b -= a;
+		} while (b != 0);
+		return a << k;
+	}
+
+	/*
+	 * Compito che fattorizza i blocchi da primo a ultimo escluso, dividendoli a
+	 * metà finché non ne resta uno solo.
+	 */
+	@SuppressWarnings("serial")
+	private final class CompitoFattorizzazione extends RecursiveAction {
+		private final int[] interi;
+		private final long[] lunghi;
+		private final int[] quanti;
+		private final long[][] primiDeiBlocchi;
+		private final int[][] esponentiDeiBlocchi;
+		private final int primo;
+		private final int ultimo;
+
+		CompitoFattorizzazione(int[] interi, long[] lunghi, int[] quanti, long[][] primiDeiBlocchi,
+				int[][] esponentiDeiBlocchi, int primo, int ultimo) {
+			this.interi = interi;
+			this.lunghi = lunghi;
+			this.quanti = quanti;
+			this.primiDeiBlocchi = primiDeiBlocchi;
+			this.esponentiDeiBlocchi = esponentiDeiBlocchi;
+			this.primo = primo;
+			this.ultimo = ultimo;
+		}
+
+		@Override
+		protected void compute() {
+			if (ultimo - primo > 1) {
+				int mezzo = (primo + ultimo) >>> 1;
+				invokeAll(
+						new CompitoFattorizzazione(interi, lunghi, quanti, primiDeiBlocchi, esponentiDeiBlocchi,
+								primo, mezzo),
+						new CompitoFattorizzazione(interi, lunghi, quanti, primiDeiBlocchi, esponentiDeiBlocchi,
+								mezzo, ultimo));
+				return;
+			}
+			for (int b = primo; b < ultimo; b++)
+				fattorizzaBlocco(b);
+		}
+
+		// Fattorizza i numeri del blocco b in array che crescono quando servono
+		private void fattorizzaBlocco(int b) {
+			int da = b * NUMERI_PER_BLOCCO;
+			int a = Math.min(quanti.length, da + NUMERI_PER_BLOCCO);
+			long[] primi = new long[4 * (a - da) + MASSIMO_FATTORI];
+			int[] esponenti = new int[primi.length];
+			long[] p = new long[MASSIMO_FATTORI];
+			int[] e = new int[MASSIMO_FATTORI];
+			int usati = 0;
+			for (int i = da; i < a; i++) {
+				int k = fattorizza(interi != null ? interi[i] : lunghi[i], p, e);
+				if (usati + k > primi.length) {
+					primi = Arrays.copyOf(primi, 2 * primi.length);
+					esponenti = Arrays.copyOf(esponenti, primi.length);
+				}
+				System.arraycopy(p, 0, primi, usati, k);
+				System.arraycopy(e, 0, esponenti, usati, k);
+				usati += k;
+				quanti[i] = k;
+			}
+			primiDeiBlocchi[b] = primi;
+			esponentiDeiBlocchi[b] = esponenti;
+		}
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,174 @@
+package it.unicam.cs.asdl1819.miniproject1;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Fattorizza tutti i numeri di un intervallo {@code [a, b]} con un crivello a
+ * segmenti. Ogni segmento di numeri consecutivi viene copiato in un array di
+ * residui; per ogni primo base {@code p} fino alla radice di {@code b} si
+ * visitano solo i multipli di {@code p} del segmento, dividendo il residuo per
+ * tutte le potenze di {@code p}. Alla fine un residuo maggiore di 1 è l'unico
+ * fattore primo oltre la radice. Il costo complessivo è circa
+ * {@code O((b - a) log log b)} più un passo per primo base e segmento, invece di
+ * una fattorizzazione per divisioni successive per ogni numero.
+ *
+ * I risultati vengono prodotti un segmento alla volta come
+ * {@link Fattorizzazioni}: il segmento di indice {@code k} contiene i numeri da
+ * {@code a + k * numeriPerSegmento} in poi, nell'ordine, e solo un segmento
+ * alla volta è in memoria.
+ *
+ * @author Alex Citeroni
+ *
+ */
+public class FattorizzatoreDiIntervallo implements Iterator<Fattorizzazioni> {
+	/**
+	 * Numero predefinito di numeri in un segmento.
+	 */
+	public static final int NUMERI_PER_SEGMENTO = 1 << 15;
+	// Massimo numero di fattori primi distinti di un long positivo
+	private static final int MASSIMO_FATTORI = 15;
+
+	private long a;
+	private long b;
+	private int numeriPerSegmento;
+	// I primi dispari fino alla radice di b
+	private int[] primi;
+	// Il primo numero del prossimo segmento
+	private long prossimo;
+
+	/**
+	 * Prepara la fattorizzazione dei numeri compresi tra {@code a} e {@code b}
+	 * inclusi, con segmenti di {@value #NUMERI_PER_SEGMENTO} numeri.
+	 *
+	 * @param a il primo numero dell'intervallo
+	 * @param b l'ultimo numero dell'intervallo
+	 * @throws IllegalArgumentException se {@code a} è minore di 1, se {@code b} è
+	 *                                  minore di {@code a} o maggiore di
+	 *                                  {@link SegmentoDiCrivello#MASSIMO}
+	 */
+	public FattorizzatoreDiIntervallo(long a, long b) {
+		this(a, b, NUMERI_PER_SEGMENTO);
+	}
+
+	/**
+	 * Prepara la fattorizzazione dei numeri compresi tra {@code a} e {@code b}
+	 * inclusi, con segmenti della dimensione indicata.
+	 *
+	 * @param a                 il primo numero dell'intervallo
+	 * @param b                 l'ultimo numero dell'intervallo
+	 * @param numeriPerSegmento il numero di numeri di ogni segmento
+	 * @throws IllegalArgumentException se {@code a} è minore di 1, se {@code b} è
+	 *                                  minore di {@code a} o maggiore di
+	 *                                  {@link SegmentoDiCrivello#MASSIMO}, o se
+	 *                                  la dimensione dei segmenti non è positiva
+	 *                                  o è troppo grande
+	 */
+	public FattorizzatoreDiIntervallo(long a, long b, int numeriPerSegmento) {
+		// Verifico che l'intervallo sia valido e che i primi base siano int
+		if (a < 1 || b < a || b > SegmentoDiCrivello.MASSIMO || numeriPerSegmento < 1
+				|| numeriPerSegmento > Integer.MAX_VALUE / MASSIMO_FATTORI)
+			throw new IllegalArgumentException();
+		this.a = a;
+		this.b = b;
+		this.numeriPerSegmento = numeriPerSegmento;
+		this.primi = Setaccio.primiBase((int) Setaccio.radice(b));
+		this.prossimo = a;
+	}
+
+	/**
+	 * Restituisce il primo numero dell'intervallo.
+	 *
+	 * @return il primo numero dell'intervallo
+	 */
+	public long getA() {
+		return a;
+	}
+
+	/**
+	 * Restituisce l'ultimo numero dell'intervallo.
+	 *
+	 * @return l'ultimo numero dell'intervallo
+	 */
+	public long getB() {
+		return b;
+	}
+
+	/**
+	 * Controlla se restano segmenti da fattorizzare.
+	 *
+	 * @return true se restano segmenti da fattorizzare
+	 */
+	@Override
+	public boolean hasNext() {
+		return prossimo <= b;
+	}
+
+	/**
+	 * Fattorizza il prossimo segmento dell'intervallo.
+	 *
+	 * @return le fattorizzazioni dei numeri del segmento, nell'ordine
+	 * @throws NoSuchElementException se non restano segmenti
+	 */
+	@Override
+	public Fattorizzazioni next() {
+		if (!hasNext())
+			throw new NoSuchElementException();
+		long lo = prossimo;
+		int quantiNumeri = (int) Math.min(numeriPerSegmento, b - lo + 1);
+		prossimo = lo + quantiNumeri;
+		return fattorizza(lo, quantiNumeri);
+	}
+
+	// Fattorizza i numeri da lo a lo + quantiNumeri escluso
+	private Fattorizzazioni fattorizza(long lo, int quantiNumeri) {
+		long hi = lo + quantiNumeri - 1;
+		long[] residui = new long[quantiNumeri];
+		for (int i = 0; i < quantiNumeri; i++)
+			residui[i] = lo + i;
+		// Ogni numero ha MASSIMO_FATTORI posizioni, riempite in ordine crescente
+		long[] fattori = new long[quantiNumeri * MASSIMO_FATTORI];
+		int[] potenze = new int[fattori.length];
+		int[] quanti = new int[quantiNumeri];
+		// Il 2 si toglie in un colpo solo contando gli zeri finali
+		for (int i = (int) (lo & 1); i < quantiNumeri; i += 2) {
+			int zeri = Long.numberOfTrailingZeros(residui[i]);
+			residui[i] >>>= zeri;
+			fattori[i * MASSIMO_FATTORI] = 2;
+			potenze[i * MASSIMO_FATTORI] = zeri;
+			quanti[i] = 1;
+		}
+		for (int p : primi) {
+			if ((long) p * p > hi)
+				break;
+			// Primo multiplo di p nel segmento
+			long r = lo % p;
+			for (long j = r == 0 ? 0 : p - r; j < quantiNumeri; j += p) {
+				int i = (int) j;
+				int esponente = 0;
+				do {
+					residui[i] /= p;
+					esponente++;
+				} while (residui[i] % p == 0);
+				int k = i * MASSIMO_FATTORI + quanti[i]++;
+				fattori[k] = p;
+				potenze[k] = esponente;
+			}
+		}
+		// Ciò che resta è 1 o un primo maggiore della radice
+		int[] inizi = new int[quantiNumeri + 1];
+		for (int i = 0; i < quantiNumeri; i++)
+			inizi[i + 1] = inizi[i] + quanti[i] + (residui[i] > 1 ? 1 : 0);
+		long[] primiDistinti = new long[inizi[quantiNumeri]];
+		int[] esponenti = new int[primiDistinti.length];
+		for (int i = 0; i < quantiNumeri; i++) {
+			System.arraycopy(fattori, i * MASSIMO_FATTORI, primiDistinti, inizi[i], quanti[i]);
+			System.arraycopy(potenze, i * MASSIMO_FATTORI, esponenti, inizi[i], quanti[i]);
+			if (residui[i] > 1) {
+				primiDistinti[inizi[i + 1] - 1] = residui[i];
+				esponenti[inizi[i + 1] - 1] = 1;
+			}
+		}
+		return new Fattorizzazioni(inizi, primiDistinti, esponenti);
+	}
+}
@@ -0,0 +1,351 @@
+package it.unicam.cs.asdl1819.miniproject1;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * La fattorizzazione di un numero in forma compatta e immutabile: i fattori
+ * primi distinti in ordine crescente in un array di {@code long} e i rispettivi
+ * esponenti in un array di {@code int}. Diversamente da un {@link Multiset}
+ * non contiene oggetti per i singoli fattori, quindi può essere conservata a
+ * lungo, per esempio in una {@link CacheDiFattorizzazioni}, e condivisa tra
+ * più thread.
+ *
+ * I divisori del numero vengono ricavati direttamente dal vettore degli
+ * esponenti: il loro numero e la loro somma con un prodotto, e la loro
+ * enumerazione senza mai costruire l'insieme di tutti i divisori.
+ *
+ * @author Alex Citeroni
+ *
+ */
+public final class Fattorizzazione {
+	private final long[] primi;
+	private final int[] esponenti;
+
+	/*
+	 * Costruisce la fattorizzazione dalle due colonne, che non vengono copiate e
+	 * non devono essere modificate.
+	 */
+	Fattorizzazione(long[] primi, int[] esponenti) {
+		this.primi = primi;
+		this.esponenti = esponenti;
+	}
+
+	/**
+	 * Restituisce il numero di fattori primi distinti.
+	 *
+	 * @return il numero di fattori primi distinti
+	 */
+	public int numeroFattori() {
+		return primi.length;
+	}
+
+	/**
+	 * Restituisce un fattore primo.
+	 *
+	 * @param k la posizione del fattore, in ordine crescente
+	 * @return il fattore primo di posizione {@code k}
+	 * @throws IndexOutOfBoundsException se la posizione non è valida
+	 */
+	public long primo(int k) {
+		return primi[k];
+	}
+
+	/**
+	 * Restituisce l'esponente di un fattore primo.
+	 *
+	 * @param k la posizione del fattore, in ordine crescente
+	 * @return l'esponente del fattore primo di posizione {@code k}
+	 * @throws IndexOutOfBoundsException se la posizione non è valida
+	 */
+	public int esponente(int k) {
+		return esponenti[k];
+	}
+
+	/**
+	 * Restituisce una copia dei fattori primi distinti.
+	 *
+	 * @return i fattori primi distinti in ordine crescente
+	 */
+	public long[] getPrimi() {
+		return primi.clone();
+	}
+
+	/**
+	 * Restituisce una copia degli esponenti.
+	 *
+	 * @return gli esponenti dei fattori primi, nello stesso ordine
+	 */
+	public int[] getEsponenti() {
+		return esponenti.clone();
+	}
+
+	/**
+	 * Restituisce la fattorizzazione come multinsieme, con le stesse convenzioni
+	 * di {@link Factoriser#getFactors(long)}.
+	 *
+	 * @return il multinsieme dei fattori primi
+	 */
+	public Multiset<Long> getFactors() {
+		MyMultiset<Long> factors = new MyMultiset<Long>();
+		for (int k = 0; k < primi.length; k++)
+			factors.add(primi[k], esponenti[k]);
+		return factors;
+	}
+
+	/**
+	 * Restituisce il numero fattorizzato, cioè il prodotto dei fattori primi.
+	 *
+	 * @return il numero fattorizzato
+	 */
+	public long valore() {
+		long n = 1;
+		for (int k = 0; k < primi.length; k++)
+			for (int e = 0; e < esponenti[k]; e++)
+				n *= primi[k];
+		return n;
+	}
+
+	/**
+	 * Restituisce il numero dei divisori, cioè il prodotto degli esponenti
+	 * aumentati di 1.
+	 *
+	 * @return il numero dei divisori
+	 */
+	public long numeroDivisori() {
+		long d = 1;
+		for (int e : esponenti)
+			d *= e + 1;
+		return d;
+	}
+
+	/**
+	 * Conta i divisori minori o uguali a un numero dato. I divisori vengono
+	 * esplorati un fattore primo alla volta, scartando appena il prodotto supera
+	 * {@code k}, quindi il costo è proporzionale al risultato e non al numero
+	 * totale dei divisori.
+	 *
+	 * @param k il limite
+	 * @return il numero dei divisori minori o uguali a {@code k}
+	 */
+	public long numeroDivisoriFinoA(long k) {
+		if (k < 1)
+			return 0;
+		return conta(0, 1, k);
+	}
+
+	/**
+	 * Restituisce la somma dei divisori, cioè il prodotto di
+	 * {@code 1 + p + ... + p^e} per ogni fattore primo {@code p} con esponente
+	 * {@code e}.
+	 *
+	 * @return la somma dei divisori
+	 * @throws ArithmeticException se la somma non sta in un {@code long}
+	 */
+	public long sommaDivisori() {
+		long s = 1;
+		for (int k = 0; k < primi.length; k++) {
+			long somma = 1;
+			for (int e = 0; e < esponenti[k]; e++)
+				somma = Math.addExact(Math.multiplyExact(somma, primi[k]), 1);
+			s = Math.multiplyExact(s, somma);
+		}
+		return s;
+	}
+
+	/**
+	 * Restituisce lo stream dei divisori senza un ordine particolare. Ogni
+	 * divisore si ottiene dal precedente come in un contachilometri sugli
+	 * esponenti, con una moltiplicazione e, quando una cifra torna a 0, una
+	 * divisione, quindi lo stream occupa solo lo spazio dei contatori.
+	 *
+	 * @return lo stream dei divisori
+	 */
+	public LongStream divisori() {
+		return StreamSupport.longStream(Spliterators.spliterator(new Contachilometri(), numeroDivisori(),
+				Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.IMMUTABLE), false);
+	}
+
+	/**
+	 * Restituisce lo stream dei divisori in ordine crescente. I divisori vengono
+	 * generati da uno heap che contiene solo la frontiera dei divisori non
+	 * ancora restituiti: ogni divisore viene inserito una sola volta, dal
+	 * divisore che si ottiene togliendogli un fattore primo più grande.
+	 *
+	 * @return lo stream dei divisori in ordine crescente
+	 */
+	public LongStream divisoriOrdinati() {
+		return StreamSupport.longStream(Spliterators.spliterator(new DivisoriOrdinati(), numeroDivisori(),
+				Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.IMMUTABLE | Spliterator.ORDERED
+						| Spliterator.SORTED),
+				false);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * Arrays.hashCode(primi) + Arrays.hashCode(esponenti);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!(obj instanceof Fattorizzazione))
+			return false;
+		Fattorizzazione other = (Fattorizzazione) obj;
+		return Arrays.equals(primi, other.primi) && Arrays.equals(esponenti, other.esponenti);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder s = new StringBuilder();
+		for (int k = 0; k < primi.length; k++) {
+			if (k > 0)
+				s.append(" * ");
+			s.append(primi[k]);
+			if (esponenti[k] > 1)
+				s.append('^').append(esponenti[k]);
+		}
+		return s.length() == 0 ? "1" : s.toString();
+	}
+
+	// Conta i divisori d * m minori o uguali a k con m prodotto dei fattori da i
+	private long conta(int i, long d, long k) {
+		if (i == primi.length)
+			return 1;
+		long n = 0;
+		for (int e = 0;; e++) {
+			n += conta(i + 1, d, k);
+			if (e == esponenti[i] || d > k / primi[i])
+				return n;
+			d *= primi[i];
+		}
+	}
+
+	/*
+	 * Iteratore che conta sugli esponenti in base mista: la cifra k va da 0
+	 * all'esponente del fattore k.
+	 */
+	private final class Contachilometri implements PrimitiveIterator.OfLong {
+		private final int[] cifre = new int[primi.length];
+		private long corrente = 1;
+		private boolean finito = false;
+
+		@Override
+		public boolean hasNext() {
+			return !finito;
+		}
+
+		@Override
+		public long nextLong() {
+			if (finito)
+				throw new NoSuchElementException();
+			long d = corrente;
+			for (int k = 0; k < cifre.length; k++) {
+				if (cifre[k] < esponenti[k]) {
+					cifre[k]++;
+					corrente *= primi[k];
+					return d;
+				}
+				// La cifra torna a 0 e il riporto passa al fattore successivo
+				for (; cifre[k] > 0; cifre[k]--)
+					corrente /= primi[k];
+			}
+			finito = true;
+			return d;
+		}
+	}
+
+	/*
+	 * Iteratore sui divisori in ordine crescente. Ogni elemento dello heap è un
+	 * divisore con la posizione del suo fattore primo più grande e l'esponente di
+	 * quel fattore; i suoi figli si ottengono moltiplicando per quel fattore, se
+	 * l'esponente lo consente, o per un fattore più grande.
+	 */
+	private final class DivisoriOrdinati implements PrimitiveIterator.OfLong {
+		private long[] divisori = new long[16];
+		private int[] ultimi = new int[16];
+		private int[] potenze = new int[16];
+		private int dimensione;
+
+		DivisoriOrdinati() {
+			// 1 non ha fattori: tutti i primi possono seguirlo
+			inserisci(1, -1, 0);
+		}
+
+		@Override
+		public boolean hasNext() {
+			return dimensione > 0;
+		}
+
+		@Override
+		public long nextLong() {
+			if (dimensione == 0)
+				throw new NoSuchElementException();
+			long d = divisori[0];
+			int ultimo = ultimi[0];
+			int potenza = potenze[0];
+			dimensione--;
+			sposta(dimensione, 0);
+			scendi(0);
+			if (ultimo >= 0 && potenza < esponenti[ultimo])
+				inserisci(d * primi[ultimo], ultimo, potenza + 1);
+			for (int k = ultimo + 1; k < primi.length; k++)
+				inserisci(d * primi[k], k, 1);
+			return d;
+		}
+
+		private void inserisci(long d, int ultimo, int potenza) {
+			if (dimensione == divisori.length) {
+				divisori = Arrays.copyOf(divisori, 2 * dimensione);
+				ultimi = Arrays.copyOf(ultimi, 2 * dimensione);
+				potenze = Arrays.copyOf(potenze, 2 * dimensione);
+			}
+			int i = dimensione++;
+			divisori[i] = d;
+			ultimi[i] = ultimo;
+			potenze[i] = potenza;
+			// Risalgo finché il padre è più grande
+			while (i > 0 && divisori[(i - 1) >>> 1] > divisori[i]) {
+				scambia(i, (i - 1) >>> 1);
+				i = (i - 1) >>> 1;
+			}
+		}
+
+		private void scendi(int i) {
+			while (true) {
+				int minimo = i;
+				int sinistro = 2 * i + 1;
+				if (sinistro < dimensione && divisori[sinistro] < divisori[minimo])
+					minimo = sinistro;
+				if (sinistro + 1 < dimensione && divisori[sinistro + 1] < divisori[minimo])
+					minimo = sinistro + 1;
+				if (minimo == i)
+					return;
+				scambia(i, minimo);
+				i = minimo;
+			}
+		}
+
+		private void sposta(int da, int a) {
+			divisori[a] = divisori[da];
+			ultimi[a] = ultimi[da];
+			potenze[a] = potenze[da];
+		}
+
+		private void scambia(int i, int j) {
+			long d = divisori[i];
+			int u = ultimi[i];
+			int p = potenze[i];
+			sposta(j, i);
+			divisori[j] = d;
+			ultimi[j] = u;
+			potenze[j] = p;
+		}
+	}
+}
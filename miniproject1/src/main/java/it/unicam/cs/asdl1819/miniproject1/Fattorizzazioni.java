@@ -0,0 +1,99 @@
+package it.unicam.cs.asdl1819.miniproject1;
+
+/**
+ * Le fattorizzazioni di una sequenza di numeri memorizzate per colonne, come
+ * restituite da {@link Factoriser#getFactors(long[], int)}. I fattori primi
+ * distinti di tutti i numeri stanno uno dopo l'altro in un unico array, con
+ * accanto l'array dei rispettivi esponenti; i fattori del numero di posizione
+ * {@code i} occupano le posizioni da {@code getInizi()[i]} incluso a
+ * {@code getInizi()[i + 1]} escluso, in ordine crescente. Il numero {@code 1}
+ * non ha fattori.
+ *
+ * Gli array restituiti non vengono copiati, quindi non vanno modificati.
+ *
+ * @author Alex Citeroni
+ *
+ */
+public final class Fattorizzazioni {
+	// inizi[i] è la posizione del primo fattore del numero i, inizi[size()] il
+	// numero totale di fattori
+	private final int[] inizi;
+	private final long[] primi;
+	private final int[] esponenti;
+
+	/*
+	 * Costruisce le fattorizzazioni a partire dalle tre colonne.
+	 */
+	Fattorizzazioni(int[] inizi, long[] primi, int[] esponenti) {
+		this.inizi = inizi;
+		this.primi = primi;
+		this.esponenti = esponenti;
+	}
+
+	/**
+	 * Restituisce il numero di numeri fattorizzati.
+	 *
+	 * @return il numero di fattorizzazioni
+	 */
+	public int size() {
+		return inizi.length - 1;
+	}
+
+	/**
+	 * Restituisce il numero di fattori primi distinti di un numero.
+	 *
+	 * @param i la posizione del numero
+	 * @return il numero di fattori primi distinti del numero di posizione
+	 *         {@code i}
+	 * @throws IndexOutOfBoundsException se la posizione non è valida
+	 */
+	public int numeroFattori(int i) {
+		if (i < 0 || i >= size())
+			throw new IndexOutOfBoundsException();
+		return inizi[i + 1] - inizi[i];
+	}
+
+	/**
+	 * Restituisce l'array delle posizioni di inizio, lungo {@code size() + 1}.
+	 *
+	 * @return l'array delle posizioni di inizio
+	 */
+	public int[] getInizi() {
+		return inizi;
+	}
+
+	/**
+	 * Restituisce l'array dei fattori primi di tutti i numeri.
+	 *
+	 * @return l'array dei fattori primi
+	 */
+	public long[] getPrimi() {
+		return primi;
+	}
+
+	/**
+	 * Restituisce l'array degli esponenti dei fattori primi.
+	 *
+	 * @return l'array degli esponenti
+	 */
+	public int[] getEsponenti() {
+		return esponenti;
+	}
+
+	/**
+	 * Restituisce la fattorizzazione di un numero come multinsieme, con le stesse
+	 * convenzioni di {@link Factoriser#getFactors(long)}.
+	 *
+	 * @param i la posizione del numero
+	 * @return il multinsieme dei fattori primi del numero di posizione {@code i}
+	 * @throws IndexOutOfBoundsException se la posizione non è valida
+	 */
+	public Multiset<Long> getFactors(int i) {
+		if (i < 0 || i >= size())
+			throw new IndexOutOfBoundsException();
+		MyMultiset<Long> factors = new MyMultiset<Long>();
+		for (int k = inizi[i]; k < inizi[i + 1]; k++)
+			factors.add(primi[k], esponenti[k]);
+		return factors;
+	}
+}
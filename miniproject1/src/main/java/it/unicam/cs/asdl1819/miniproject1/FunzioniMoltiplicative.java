@@ -0,0 +1,437 @@
+package it.unicam.cs.asdl1819.miniproject1;
+
+/**
+ * Calcolo in blocco delle principali funzioni moltiplicative: la funzione di
+ * Eulero {@code φ(n)}, il numero dei divisori {@code d(n)}, la somma dei
+ * divisori {@code σ(n)} e la funzione di Möbius {@code μ(n)}.
+ *
+ * Le versioni che riempiono un array per tutti i numeri da 0 a {@code n} usano
+ * il crivello lineare: ogni numero composto {@code i * p} viene raggiunto una
+ * sola volta, dal suo minimo fattore primo {@code p}, e il suo valore si ricava
+ * da quello di {@code i} in tempo costante, quindi il costo è {@code O(n)}. Le
+ * versioni a segmenti calcolano le funzioni per i numeri di un intervallo
+ * {@code [lo, lo + quanti)} anche molto lontano da 0, scomponendolo con un
+ * {@link FattorizzatoreDiIntervallo}; l'elemento di posizione 0 dei loro
+ * risultati corrisponde a {@code lo}.
+ *
+ * Ogni chiamata a segmenti setaccia di nuovo i primi base fino alla radice
+ * dell'ultimo numero. Per percorrere un intervallo lungo conviene creare un
+ * solo {@link FattorizzatoreDiIntervallo}, che setaccia i primi base una volta
+ * sola, e passare ogni segmento che restituisce alle versioni che ricevono
+ * {@link Fattorizzazioni}, le quali ricavano i valori dai fattori in tempo
+ * lineare nel numero di fattori.
+ *
+ * @author Alex Citeroni
+ *
+ */
+public final class FunzioniMoltiplicative {
+	/**
+	 * Massimo numero per cui si può riempire un array.
+	 */
+	public static final int MASSIMO = Integer.MAX_VALUE - 9;
+	/**
+	 * Massimo numero di un segmento: {@code σ(n)} è minore di {@code 8n} e deve
+	 * stare in un {@code long}.
+	 */
+	public static final long MASSIMO_SEGMENTO = Long.MAX_VALUE / 8;
+
+	private FunzioniMoltiplicative() {
+	}
+
+	/**
+	 * Calcola la funzione di Eulero, cioè quanti numeri da 1 a {@code i} sono
+	 * primi con {@code i}, per tutti i numeri fino a {@code n}.
+	 *
+	 * @param n il numero più grande
+	 * @return l'array di {@code n + 1} elementi con {@code φ(i)} in posizione
+	 *         {@code i} e 0 in posizione 0
+	 * @throws IllegalArgumentException se {@code n} è minore di 1 o maggiore di
+	 *                                  {@link #MASSIMO}
+	 */
+	public static int[] totiente(int n) {
+		int[] primi = primi(n);
+		int[] phi = new int[n + 1];
+		phi[1] = 1;
+		int prossimo = 0;
+		for (int i = 2; i <= n; i++) {
+			if (prossimo < primi.length && primi[prossimo] == i) {
+				phi[i] = i - 1;
+				prossimo++;
+			}
+			for (int p : primi) {
+				if ((long) p * i > n)
+					break;
+				// Se p divide i la potenza di p cresce, altrimenti p è un fattore nuovo
+				if (i % p == 0) {
+					phi[p * i] = phi[i] * p;
+					break;
+				}
+				phi[p * i] = phi[i] * (p - 1);
+			}
+		}
+		return phi;
+	}
+
+	/**
+	 * Calcola il numero dei divisori per tutti i numeri fino a {@code n}.
+	 *
+	 * @param n il numero più grande
+	 * @return l'array di {@code n + 1} elementi con {@code d(i)} in posizione
+	 *         {@code i} e 0 in posizione 0
+	 * @throws IllegalArgumentException se {@code n} è minore di 1 o maggiore di
+	 *                                  {@link #MASSIMO}
+	 */
+	public static int[] numeroDivisori(int n) {
+		int[] primi = primi(n);
+		int[] d = new int[n + 1];
+		// esponenti[i] è l'esponente del minimo fattore primo di i
+		byte[] esponenti = new byte[n + 1];
+		d[1] = 1;
+		int prossimo = 0;
+		for (int i = 2; i <= n; i++) {
+			if (prossimo < primi.length && primi[prossimo] == i) {
+				d[i] = 2;
+				esponenti[i] = 1;
+				prossimo++;
+			}
+			for (int p : primi) {
+				if ((long) p * i > n)
+					break;
+				if (i % p == 0) {
+					// Il fattore e + 1 di d(i) diventa e + 2
+					int e = esponenti[i];
+					d[p * i] = d[i] / (e + 1) * (e + 2);
+					esponenti[p * i] = (byte) (e + 1);
+					break;
+				}
+				d[p * i] = d[i] * 2;
+				esponenti[p * i] = 1;
+			}
+		}
+		return d;
+	}
+
+	/**
+	 * Calcola la somma dei divisori per tutti i numeri fino a {@code n}.
+	 *
+	 * @param n il numero più grande
+	 * @return l'array di {@code n + 1} elementi con {@code σ(i)} in posizione
+	 *         {@code i} e 0 in posizione 0
+	 * @throws IllegalArgumentException se {@code n} è minore di 1 o maggiore di
+	 *                                  {@link #MASSIMO}
+	 */
+	public static long[] sommaDivisori(int n) {
+		int[] primi = primi(n);
+		long[] sigma = new long[n + 1];
+		// somme[i] è 1 + p + ... + p^e, dove p^e è la potenza del minimo fattore
+		// primo p che divide i
+		long[] somme = new long[n + 1];
+		sigma[1] = 1;
+		int prossimo = 0;
+		for (int i = 2; i <= n; i++) {
+			if (prossimo < primi.length && primi[prossimo] == i) {
+				sigma[i] = i + 1;
+				somme[i] = i + 1;
+				prossimo++;
+			}
+			for (int p : primi) {
+				if ((long) p * i > n)
+					break;
+				if (i % p == 0) {
+					long somma = somme[i] * p + 1;
+					sigma[p * i] = sigma[i] / somme[i] * somma;
+					somme[p * i] = somma;
+					break;
+				}
+				sigma[p * i] = sigma[i] * (p + 1);
+				somme[p * i] = p + 1;
+			}
+		}
+		return sigma;
+	}
+
+	/**
+	 * Calcola la funzione di Möbius per tutti i numeri fino a {@code n}: vale 0
+	 * se il numero è divisibile per un quadrato maggiore di 1, altrimenti 1 o -1
+	 * a seconda che il numero di fattori primi sia pari o dispari.
+	 *
+	 * @param n il numero più grande
+	 * @return l'array di {@code n + 1} elementi con {@code μ(i)} in posizione
+	 *         {@code i} e 0 in posizione 0
+	 * @throws IllegalArgumentException se {@code n} è minore di 1 o maggiore di
+	 *                                  {@link #MASSIMO}
+	 */
+	public static byte[] mobius(int n) {
+		int[] primi = primi(n);
+		byte[] mu = new byte[n + 1];
+		mu[1] = 1;
+		int prossimo = 0;
+		for (int i = 2; i <= n; i++) {
+			if (prossimo < primi.length && primi[prossimo] == i) {
+				mu[i] = -1;
+				prossimo++;
+			}
+			for (int p : primi) {
+				if ((long) p * i > n)
+					break;
+				// p * i è divisibile per p^2, mu[p * i] resta 0
+				if (i % p == 0)
+					break;
+				mu[p * i] = (byte) -mu[i];
+			}
+		}
+		return mu;
+	}
+
+	/**
+	 * Calcola la funzione di Eulero per i numeri da {@code lo} a
+	 * {@code lo + quanti - 1}.
+	 *
+	 * @param lo     il primo numero
+	 * @param quanti il numero di numeri
+	 * @return l'array con {@code φ(lo + i)} in posizione {@code i}
+	 * @throws IllegalArgumentException se {@code lo} è minore di 1, se
+	 *                                  {@code quanti} è negativo o se l'ultimo
+	 *                                  numero supera {@link #MASSIMO_SEGMENTO}
+	 */
+	public static long[] totiente(long lo, int quanti) {
+		final long[] phi = new long[verificaSegmento(lo, quanti)];
+		perSegmenti(lo, quanti, new Riempimento() {
+			@Override
+			public void riempi(Fattorizzazioni segmento, int da) {
+				totiente(segmento, phi, da);
+			}
+		});
+		return phi;
+	}
+
+	/**
+	 * Calcola il numero dei divisori per i numeri da {@code lo} a
+	 * {@code lo + quanti - 1}.
+	 *
+	 * @param lo     il primo numero
+	 * @param quanti il numero di numeri
+	 * @return l'array con {@code d(lo + i)} in posizione {@code i}
+	 * @throws IllegalArgumentException se {@code lo} è minore di 1, se
+	 *                                  {@code quanti} è negativo o se l'ultimo
+	 *                                  numero supera {@link #MASSIMO_SEGMENTO}
+	 */
+	public static int[] numeroDivisori(long lo, int quanti) {
+		final int[] d = new int[verificaSegmento(lo, quanti)];
+		perSegmenti(lo, quanti, new Riempimento() {
+			@Override
+			public void riempi(Fattorizzazioni segmento, int da) {
+				numeroDivisori(segmento, d, da);
+			}
+		});
+		return d;
+	}
+
+	/**
+	 * Calcola la somma dei divisori per i numeri da {@code lo} a
+	 * {@code lo + quanti - 1}.
+	 *
+	 * @param lo     il primo numero
+	 * @param quanti il numero di numeri
+	 * @return l'array con {@code σ(lo + i)} in posizione {@code i}
+	 * @throws IllegalArgumentException se {@code lo} è minore di 1, se
+	 *                                  {@code quanti} è negativo o se l'ultimo
+	 *                                  numero supera {@link #MASSIMO_SEGMENTO}
+	 */
+	public static long[] sommaDivisori(long lo, int quanti) {
+		final long[] sigma = new long[verificaSegmento(lo, quanti)];
+		perSegmenti(lo, quanti, new Riempimento() {
+			@Override
+			public void riempi(Fattorizzazioni segmento, int da) {
+				sommaDivisori(segmento, sigma, da);
+			}
+		});
+		return sigma;
+	}
+
+	/**
+	 * Calcola la funzione di Möbius per i numeri da {@code lo} a
+	 * {@code lo + quanti - 1}.
+	 *
+	 * @param lo     il primo numero
+	 * @param quanti il numero di numeri
+	 * @return l'array con {@code μ(lo + i)} in posizione {@code i}
+	 * @throws IllegalArgumentException se {@code lo} è minore di 1, se
+	 *                                  {@code quanti} è negativo o se l'ultimo
+	 *                                  numero supera {@link #MASSIMO_SEGMENTO}
+	 */
+	public static byte[] mobius(long lo, int quanti) {
+		final byte[] mu = new byte[verificaSegmento(lo, quanti)];
+		perSegmenti(lo, quanti, new Riempimento() {
+			@Override
+			public void riempi(Fattorizzazioni segmento, int da) {
+				mobius(segmento, mu, da);
+			}
+		});
+		return mu;
+	}
+
+	/**
+	 * Calcola la funzione di Eulero per i numeri di un segmento già
+	 * fattorizzato.
+	 *
+	 * @param segmento le fattorizzazioni dei numeri
+	 * @return l'array con la funzione di Eulero del numero di posizione {@code i}
+	 *         in posizione {@code i}
+	 * @throws NullPointerException se il segmento è nullo
+	 */
+	public static long[] totiente(Fattorizzazioni segmento) {
+		long[] phi = new long[segmento.size()];
+		totiente(segmento, phi, 0);
+		return phi;
+	}
+
+	/**
+	 * Calcola il numero dei divisori per i numeri di un segmento già
+	 * fattorizzato.
+	 *
+	 * @param segmento le fattorizzazioni dei numeri
+	 * @return l'array con il numero dei divisori del numero di posizione
+	 *         {@code i} in posizione {@code i}
+	 * @throws NullPointerException se il segmento è nullo
+	 */
+	public static int[] numeroDivisori(Fattorizzazioni segmento) {
+		int[] d = new int[segmento.size()];
+		numeroDivisori(segmento, d, 0);
+		return d;
+	}
+
+	/**
+	 * Calcola la somma dei divisori per i numeri di un segmento già
+	 * fattorizzato.
+	 *
+	 * @param segmento le fattorizzazioni dei numeri
+	 * @return l'array con la somma dei divisori del numero di posizione {@code i}
+	 *         in posizione {@code i}
+	 * @throws ArithmeticException  se una somma non sta in un {@code long}, cosa
+	 *                              possibile solo per numeri maggiori di
+	 *                              {@link #MASSIMO_SEGMENTO}
+	 * @throws NullPointerException se il segmento è nullo
+	 */
+	public static long[] sommaDivisori(Fattorizzazioni segmento) {
+		long[] sigma = new long[segmento.size()];
+		sommaDivisori(segmento, sigma, 0);
+		return sigma;
+	}
+
+	/**
+	 * Calcola la funzione di Möbius per i numeri di un segmento già
+	 * fattorizzato.
+	 *
+	 * @param segmento le fattorizzazioni dei numeri
+	 * @return l'array con la funzione di Möbius del numero di posizione {@code i}
+	 *         in posizione {@code i}
+	 * @throws NullPointerException se il segmento è nullo
+	 */
+	public static byte[] mobius(Fattorizzazioni segmento) {
+		byte[] mu = new byte[segmento.size()];
+		mobius(segmento, mu, 0);
+		return mu;
+	}
+
+	// Scrive φ dei numeri del segmento in phi a partire dalla posizione da
+	private static void totiente(Fattorizzazioni segmento, long[] phi, int da) {
+		int[] inizi = segmento.getInizi();
+		long[] primi = segmento.getPrimi();
+		int[] esponenti = segmento.getEsponenti();
+		for (int i = 0; i < segmento.size(); i++) {
+			long valore = 1;
+			for (int k = inizi[i]; k < inizi[i + 1]; k++) {
+				// φ(p^e) = (p - 1) p^(e - 1)
+				valore *= primi[k] - 1;
+				for (int e = 1; e < esponenti[k]; e++)
+					valore *= primi[k];
+			}
+			phi[da + i] = valore;
+		}
+	}
+
+	// Scrive d dei numeri del segmento in d a partire dalla posizione da
+	private static void numeroDivisori(Fattorizzazioni segmento, int[] d, int da) {
+		int[] inizi = segmento.getInizi();
+		int[] esponenti = segmento.getEsponenti();
+		for (int i = 0; i < segmento.size(); i++) {
+			int valore = 1;
+			for (int k = inizi[i]; k < inizi[i + 1]; k++)
+				valore *= esponenti[k] + 1;
+			d[da + i] = valore;
+		}
+	}
+
+	// Scrive σ dei numeri del segmento in sigma a partire dalla posizione da
+	private static void sommaDivisori(Fattorizzazioni segmento, long[] sigma, int da) {
+		int[] inizi = segmento.getInizi();
+		long[] primi = segmento.getPrimi();
+		int[] esponenti = segmento.getEsponenti();
+		for (int i = 0; i < segmento.size(); i++) {
+			long valore = 1;
+			for (int k = inizi[i]; k < inizi[i + 1]; k++) {
+				// σ(p^e) = 1 + p + ... + p^e
+				long f = 1;
+				for (int e = 0; e < esponenti[k]; e++)
+					f = Math.addExact(Math.multiplyExact(f, primi[k]), 1);
+				valore = Math.multiplyExact(valore, f);
+			}
+			sigma[da + i] = valore;
+		}
+	}
+
+	// Scrive μ dei numeri del segmento in mu a partire dalla posizione da
+	private static void mobius(Fattorizzazioni segmento, byte[] mu, int da) {
+		int[] inizi = segmento.getInizi();
+		int[] esponenti = segmento.getEsponenti();
+		for (int i = 0; i < segmento.size(); i++) {
+			byte valore = 1;
+			for (int k = inizi[i]; k < inizi[i + 1] && valore != 0; k++)
+				valore = esponenti[k] > 1 ? 0 : (byte) -valore;
+			mu[da + i] = valore;
+		}
+	}
+
+	/*
+	 * Riceve un segmento fattorizzato e la posizione del suo primo numero
+	 * nell'array del risultato.
+	 */
+	private interface Riempimento {
+		void riempi(Fattorizzazioni segmento, int da);
+	}
+
+	/*
+	 * Verifica che il segmento inizi da 1 in su e non superi MASSIMO_SEGMENTO e
+	 * restituisce il numero di numeri.
+	 */
+	private static int verificaSegmento(long lo, int quanti) {
+		if (lo < 1 || quanti < 0 || lo > MASSIMO_SEGMENTO - quanti + 1)
+			throw new IllegalArgumentException();
+		return quanti;
+	}
+
+	// Fattorizza il segmento un pezzo alla volta con gli stessi primi base
+	private static void perSegmenti(long lo, int quanti, Riempimento riempimento) {
+		if (quanti == 0)
+			return;
+		FattorizzatoreDiIntervallo fattorizzatore = new FattorizzatoreDiIntervallo(lo, lo + quanti - 1);
+		for (int da = 0; fattorizzatore.hasNext();) {
+			Fattorizzazioni segmento = fattorizzatore.next();
+			riempimento.riempi(segmento, da);
+			da += segmento.size();
+		}
+	}
+
+	// Restituisce 2 seguito dai primi dispari fino a n, dopo aver verificato n
+	private static int[] primi(int n) {
+		if (n < 1 || n > MASSIMO)
+			throw new IllegalArgumentException();
+		int[] dispari = Setaccio.primiBase(n);
+		int[] primi = new int[n < 2 ? 0 : dispari.length + 1];
+		if (n >= 2)
+			primi[0] = 2;
+		System.arraycopy(dispari, 0, primi, primi.length - dispari.length, dispari.length);
+		return primi;
+	}
+}
@@ -0,0 +1,423 @@
+package it.unicam.cs.asdl1819.miniproject1;
+
+import java.util.AbstractMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Un multiset memorizzato in una tabella hash a indirizzamento aperto con
+ * scansione lineare: ogni cella contiene un elemento distinto e, in un array
+ * parallelo di {@code int}, il suo conteggio. Le operazioni su un singolo
+ * elemento costano in media un tempo costante, indipendentemente dal numero di
+ * elementi distinti; la tabella raddoppia quando è piena per metà e le
+ * rimozioni spostano indietro le celle successive, quindi non restano celle
+ * cancellate.
+ * 
+ * Il numero totale di occorrenze e il codice hash vengono aggiornati a ogni
+ * modifica, quindi anche {@link #size()} e {@link #hashCode()} costano un tempo
+ * costante.
+ * 
+ * @author Alex Citeroni
+ *
+ * @param <E> il tipo degli elementi del multiset
+ */
+public class HashMultiset<E> implements Multiset<E> {
+	// Capacità iniziale della tabella, una potenza di 2
+	private static final int CAPACITA_INIZIALE = 16;
+
+	// Gli elementi distinti, o null nelle celle vuote
+	private Object[] elementi;
+	// Il conteggio dell'elemento nella stessa cella
+	private int[] conteggi;
+	// Numero di elementi distinti
+	private int distinti;
+	// Numero totale di occorrenze
+	private long totale;
+	// Somma di element.hashCode() ^ count sugli elementi distinti
+	private int hash;
+
+	/**
+	 * Crea un multiset vuoto.
+	 */
+	public HashMultiset() {
+		this.elementi = new Object[CAPACITA_INIZIALE];
+		this.conteggi = new int[CAPACITA_INIZIALE];
+	}
+
+	/**
+	 * Restituisce il numero totale di occorrenze in questo multiset. Se il numero
+	 * supera {@code Integer.MAX_VALUE} viene restituito
+	 * {@code Integer.MAX_VALUE}.
+	 * 
+	 * @return il numero totale di occorrenze in questo multiset
+	 */
+	public int size() {
+		return (int) Math.min(totale, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Restituisce il numero di occorrenze di un elemento in questo multiset.
+	 * 
+	 * @param element l'elemento da contare
+	 * @return il numero di occorrenze dell'elemento, possibilmente zero
+	 * @throws NullPointerException se l'elemento è nullo
+	 */
+	public int count(Object element) {
+		if (element == null)
+			throw new NullPointerException();
+		int cella = cerca(element);
+		return elementi[cella] == null ? 0 : conteggi[cella];
+	}
+
+	/**
+	 * Aggiunge un numero di occorrenze di un elemento a questo multiset.
+	 * 
+	 * @param element     l'elemento da aggiungere
+	 * @param occurrences il numero di occorrenze da aggiungere, possibilmente zero
+	 * @return il conteggio dell'elemento prima dell'operazione
+	 * @throws IllegalArgumentException se {@code occurrences} è negativo o se
+	 *                                  l'elemento avrebbe più di
+	 *                                  {@code Integer.MAX_VALUE} occorrenze
+	 * @throws NullPointerException     se l'elemento è nullo
+	 */
+	public int add(E element, int occurrences) {
+		if (element == null)
+			throw new NullPointerException();
+		if (occurrences < 0)
+			throw new IllegalArgumentException();
+		int cella = cerca(element);
+		int prevCount = elementi[cella] == null ? 0 : conteggi[cella];
+		if ((long) prevCount + occurrences > Integer.MAX_VALUE)
+			throw new IllegalArgumentException();
+		if (occurrences == 0)
+			return prevCount;
+		if (prevCount == 0) {
+			elementi[cella] = element;
+			distinti++;
+		}
+		conteggi[cella] = prevCount + occurrences;
+		totale += occurrences;
+		aggiorna(element, prevCount, prevCount + occurrences);
+		if (prevCount == 0 && 2 * distinti > elementi.length)
+			raddoppia();
+		return prevCount;
+	}
+
+	/**
+	 * Aggiunge una singola occorrenza di un elemento a questo multiset.
+	 * 
+	 * @param element l'elemento da aggiungere
+	 * @throws NullPointerException     se l'elemento è nullo
+	 * @throws IllegalArgumentException se l'elemento ha già
+	 *                                  {@code Integer.MAX_VALUE} occorrenze
+	 */
+	public void add(E element) {
+		add(element, 1);
+	}
+
+	/**
+	 * Rimuove un numero di occorrenze di un elemento da questo multiset. Se le
+	 * occorrenze sono meno di quelle richieste vengono rimosse tutte.
+	 * 
+	 * @param element     l'elemento da rimuovere
+	 * @param occurrences il numero di occorrenze da rimuovere, possibilmente zero
+	 * @return il conteggio dell'elemento prima dell'operazione
+	 * @throws IllegalArgumentException se {@code occurrences} è negativo
+	 * @throws NullPointerException     se l'elemento è nullo
+	 */
+	public int remove(Object element, int occurrences) {
+		if (element == null)
+			throw new NullPointerException();
+		if (occurrences < 0)
+			throw new IllegalArgumentException();
+		int cella = cerca(element);
+		if (elementi[cella] == null)
+			return 0;
+		int prevCount = conteggi[cella];
+		if (prevCount > occurrences) {
+			conteggi[cella] = prevCount - occurrences;
+			totale -= occurrences;
+			aggiorna(element, prevCount, prevCount - occurrences);
+		} else {
+			svuota(cella);
+			distinti--;
+			totale -= prevCount;
+			aggiorna(element, prevCount, 0);
+		}
+		return prevCount;
+	}
+
+	/**
+	 * Rimuove una singola occorrenza di un elemento da questo multiset, se
+	 * presente.
+	 * 
+	 * @param element l'elemento da rimuovere
+	 * @return true se un'occorrenza è stata trovata e rimossa
+	 * @throws NullPointerException se l'elemento è nullo
+	 */
+	public boolean remove(Object element) {
+		return remove(element, 1) > 0;
+	}
+
+	/**
+	 * Aggiunge o rimuove le occorrenze necessarie perché un elemento abbia il
+	 * conteggio richiesto.
+	 * 
+	 * @param element     l'elemento
+	 * @param occurrences il conteggio richiesto
+	 * @return il conteggio dell'elemento prima dell'operazione
+	 * @throws IllegalArgumentException se il conteggio è negativo
+	 * @throws NullPointerException     se l'elemento è nullo
+	 */
+	public int setCount(E element, int occurrences) {
+		if (element == null)
+			throw new NullPointerException();
+		if (occurrences < 0)
+			throw new IllegalArgumentException();
+		int prevCount = count(element);
+		if (occurrences > prevCount)
+			add(element, occurrences - prevCount);
+		else if (occurrences < prevCount)
+			remove(element, prevCount - occurrences);
+		return prevCount;
+	}
+
+	/**
+	 * Restituisce un nuovo insieme con gli elementi distinti di questo multiset.
+	 * 
+	 * @return l'insieme degli elementi distinti
+	 */
+	@SuppressWarnings("unchecked")
+	public Set<E> elementSet() {
+		Set<E> risultato = new HashSet<E>();
+		for (Object e : elementi)
+			if (e != null)
+				risultato.add((E) e);
+		return risultato;
+	}
+
+	/**
+	 * Restituisce un iteratore che presenta tutte le occorrenze di ogni elemento
+	 * una dopo l'altra. L'iteratore scorre direttamente la tabella, senza copiare
+	 * le occorrenze, e non implementa l'operazione di rimozione.
+	 * 
+	 * @return un iteratore per questo multiset
+	 */
+	public Iterator<E> iterator() {
+		return new Iteratore();
+	}
+
+	/**
+	 * Restituisce un iteratore sugli elementi distinti, ognuno con il suo
+	 * conteggio, che scorre direttamente la tabella.
+	 * 
+	 * @return un iteratore sulle coppie (elemento, conteggio)
+	 */
+	@Override
+	public Iterator<Map.Entry<E, Integer>> entryIterator() {
+		return new Iterator<Map.Entry<E, Integer>>() {
+			private int cella = prossima(0);
+
+			@Override
+			public boolean hasNext() {
+				return cella < elementi.length;
+			}
+
+			@Override
+			@SuppressWarnings("unchecked")
+			public Map.Entry<E, Integer> next() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+				Map.Entry<E, Integer> entry = new AbstractMap.SimpleImmutableEntry<E, Integer>((E) elementi[cella],
+						conteggi[cella]);
+				cella = prossima(cella + 1);
+				return entry;
+			}
+		};
+	}
+
+	/**
+	 * Esegue un'operazione su ogni elemento distinto con il suo conteggio,
+	 * scorrendo la tabella senza creare coppie.
+	 * 
+	 * @param action l'operazione da eseguire
+	 * @throws NullPointerException se l'operazione è nulla
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public void forEachEntry(BiConsumer<? super E, ? super Integer> action) {
+		if (action == null)
+			throw new NullPointerException();
+		for (int i = 0; i < elementi.length; i++)
+			if (elementi[i] != null)
+				action.accept((E) elementi[i], conteggi[i]);
+	}
+
+	/**
+	 * Controlla se questo multiset contiene almeno un'occorrenza di un elemento.
+	 * 
+	 * @param element l'elemento da cercare
+	 * @return true se l'elemento è contenuto in questo multiset
+	 * @throws NullPointerException se l'elemento è nullo
+	 */
+	public boolean contains(Object element) {
+		return count(element) > 0;
+	}
+
+	/**
+	 * Rimuove tutti gli elementi da questo multiset.
+	 */
+	public void clear() {
+		elementi = new Object[CAPACITA_INIZIALE];
+		conteggi = new int[CAPACITA_INIZIALE];
+		distinti = 0;
+		totale = 0;
+		hash = 0;
+	}
+
+	/**
+	 * Controlla se questo multiset è vuoto.
+	 * 
+	 * @return true se questo multiset non contiene elementi
+	 */
+	public boolean isEmpty() {
+		return totale == 0;
+	}
+
+	/**
+	 * Restituisce un codice hash che non dipende dall'ordine degli elementi: la
+	 * somma di {@code element.hashCode() ^ count} su tutti gli elementi distinti.
+	 * 
+	 * @return il codice hash di questo multiset
+	 */
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+
+	/**
+	 * Confronta questo multiset con un oggetto. Restituisce true se l'oggetto è
+	 * un {@link Multiset} con gli stessi elementi e gli stessi conteggi.
+	 * 
+	 * @param obj l'oggetto da confrontare
+	 * @return true se l'oggetto è un multiset uguale a questo
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!(obj instanceof Multiset))
+			return false;
+		Multiset<?> other = (Multiset<?>) obj;
+		// Due multiset con dimensioni diverse, o della stessa classe con codici
+		// hash diversi, sono certamente diversi
+		if (other.size() != size() || (other.getClass() == getClass() && other.hashCode() != hash))
+			return false;
+		if (other.elementSet().size() != distinti)
+			return false;
+		for (int i = 0; i < elementi.length; i++)
+			if (elementi[i] != null && other.count(elementi[i]) != conteggi[i])
+				return false;
+		return true;
+	}
+
+	// Restituisce la prima cella piena a partire da i, o la lunghezza della tabella
+	private int prossima(int i) {
+		while (i < elementi.length && elementi[i] == null)
+			i++;
+		return i;
+	}
+
+	// Aggiorna il codice hash quando il conteggio di element cambia
+	private void aggiorna(Object element, int prima, int dopo) {
+		int h = element.hashCode();
+		if (prima > 0)
+			hash -= h ^ prima;
+		if (dopo > 0)
+			hash += h ^ dopo;
+	}
+
+	/*
+	 * Restituisce la cella che contiene l'elemento, oppure la cella vuota dove
+	 * andrebbe inserito.
+	 */
+	private int cerca(Object element) {
+		int maschera = elementi.length - 1;
+		int cella = hash(element) & maschera;
+		while (elementi[cella] != null && !elementi[cella].equals(element))
+			cella = (cella + 1) & maschera;
+		return cella;
+	}
+
+	/*
+	 * Svuota una cella spostando indietro le celle successive che altrimenti non
+	 * sarebbero più raggiungibili.
+	 */
+	private void svuota(int cella) {
+		int maschera = elementi.length - 1;
+		int vuota = cella;
+		for (int j = (cella + 1) & maschera; elementi[j] != null; j = (j + 1) & maschera) {
+			int ideale = hash(elementi[j]) & maschera;
+			// La cella j può andare nella cella vuota se la sua posizione ideale
+			// non cade tra la cella vuota esclusa e j inclusa
+			if (((j - ideale) & maschera) >= ((j - vuota) & maschera)) {
+				elementi[vuota] = elementi[j];
+				conteggi[vuota] = conteggi[j];
+				vuota = j;
+			}
+		}
+		elementi[vuota] = null;
+		conteggi[vuota] = 0;
+	}
+
+	// Raddoppia la tabella reinserendo tutti gli elementi
+	private void raddoppia() {
+		Object[] vecchiElementi = elementi;
+		int[] vecchiConteggi = conteggi;
+		elementi = new Object[2 * vecchiElementi.length];
+		conteggi = new int[elementi.length];
+		for (int i = 0; i < vecchiElementi.length; i++)
+			if (vecchiElementi[i] != null) {
+				int cella = cerca(vecchiElementi[i]);
+				elementi[cella] = vecchiElementi[i];
+				conteggi[cella] = vecchiConteggi[i];
+			}
+	}
+
+	// Mescola i bit del codice hash perché anche i bit bassi dipendano da tutti
+	private static int hash(Object element) {
+		int h = element.hashCode() * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	/*
+	 * Iteratore che scorre le celle della tabella e presenta ogni elemento tante
+	 * volte quanto il suo conteggio.
+	 */
+	private final class Iteratore implements Iterator<E> {
+		private int cella = -1;
+		private int rimanenti = 0;
+
+		@Override
+		public boolean hasNext() {
+			// Cerco la prossima cella piena solo quando l'elemento corrente è finito
+			while (rimanenti == 0 && cella < elementi.length - 1)
+				if (elementi[++cella] != null)
+					rimanenti = conteggi[cella];
+			return rimanenti > 0;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public E next() {
+			if (!hasNext())
+				throw new NoSuchElementException();
+			rimanenti--;
+			return (E) elementi[cella];
+		}
+	}
+}
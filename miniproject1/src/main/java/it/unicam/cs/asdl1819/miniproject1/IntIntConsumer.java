@@ -0,0 +1,19 @@
+package it.unicam.cs.asdl1819.miniproject1;
+
+/**
+ * Un'operazione che riceve un elemento {@code int} e il suo conteggio, senza
+ * convertirli in oggetti. Viene usata da {@link IntMultiset#forEach}.
+ *
+ * @author Alex Citeroni
+ *
+ */
+@FunctionalInterface
+public interface IntIntConsumer {
+	/**
+	 * Esegue l'operazione.
+	 *
+	 * @param element l'elemento
+	 * @param count   il conteggio dell'elemento
+	 */
+	void accept(int element, int count);
+}
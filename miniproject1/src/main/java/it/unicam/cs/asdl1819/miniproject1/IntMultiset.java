@@ -0,0 +1,490 @@
+package it.unicam.cs.asdl1819.miniproject1;
+
+import java.util.AbstractMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Un multiset di numeri {@code int} memorizzato in due array primitivi
+ * paralleli, uno per gli elementi e uno per i conteggi, organizzati come una
+ * tabella hash a indirizzamento aperto con scansione lineare. Una cella è vuota
+ * quando il suo conteggio è 0, quindi qualsiasi {@code int} può essere un
+ * elemento. Le operazioni su un elemento non creano oggetti e costano in media
+ * un tempo costante.
+ *
+ * Il multiset non implementa {@link Multiset}, perché i suoi metodi ricevono
+ * elementi primitivi; {@link #asMultiset()} ne restituisce una vista come
+ * {@code Multiset<Integer>}.
+ *
+ * @author Alex Citeroni
+ *
+ */
+public class IntMultiset {
+	// Capacità iniziale della tabella, una potenza di 2
+	private static final int CAPACITA_INIZIALE = 16;
+
+	private int[] elementi;
+	// Il conteggio dell'elemento nella stessa cella, 0 se la cella è vuota
+	private int[] conteggi;
+	// Numero di elementi distinti
+	private int distinti;
+	// Numero totale di occorrenze
+	private long totale;
+	// Somma di Integer.hashCode(element) ^ count sugli elementi distinti
+	private int hash;
+
+	/**
+	 * Crea un multiset vuoto.
+	 */
+	public IntMultiset() {
+		this.elementi = new int[CAPACITA_INIZIALE];
+		this.conteggi = new int[CAPACITA_INIZIALE];
+	}
+
+	/**
+	 * Restituisce il numero totale di occorrenze in questo multiset. Se il numero
+	 * supera {@code Integer.MAX_VALUE} viene restituito
+	 * {@code Integer.MAX_VALUE}.
+	 *
+	 * @return il numero totale di occorrenze in questo multiset
+	 */
+	public int size() {
+		return (int) Math.min(totale, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Restituisce il numero di elementi distinti.
+	 *
+	 * @return il numero di elementi distinti
+	 */
+	public int distinti() {
+		return distinti;
+	}
+
+	/**
+	 * Restituisce il numero di occorrenze di un elemento in questo multiset.
+	 *
+	 * @param element l'elemento da contare
+	 * @return il numero di occorrenze dell'elemento, possibilmente zero
+	 */
+	public int count(int element) {
+		return conteggi[cerca(element)];
+	}
+
+	/**
+	 * Aggiunge un numero di occorrenze di un elemento a questo multiset.
+	 *
+	 * @param element     l'elemento da aggiungere
+	 * @param occurrences il numero di occorrenze da aggiungere, possibilmente zero
+	 * @return il conteggio dell'elemento prima dell'operazione
+	 * @throws IllegalArgumentException se {@code occurrences} è negativo o se
+	 *                                  l'elemento avrebbe più di
+	 *                                  {@code Integer.MAX_VALUE} occorrenze
+	 */
+	public int add(int element, int occurrences) {
+		if (occurrences < 0)
+			throw new IllegalArgumentException();
+		int cella = cerca(element);
+		int prevCount = conteggi[cella];
+		if ((long) prevCount + occurrences > Integer.MAX_VALUE)
+			throw new IllegalArgumentException();
+		if (occurrences == 0)
+			return prevCount;
+		if (prevCount == 0) {
+			elementi[cella] = element;
+			distinti++;
+		}
+		conteggi[cella] = prevCount + occurrences;
+		totale += occurrences;
+		aggiorna(element, prevCount, prevCount + occurrences);
+		if (prevCount == 0 && 2 * distinti > elementi.length)
+			raddoppia();
+		return prevCount;
+	}
+
+	/**
+	 * Aggiunge una singola occorrenza di un elemento a questo multiset.
+	 *
+	 * @param element l'elemento da aggiungere
+	 * @throws IllegalArgumentException se l'elemento ha già
+	 *                                  {@code Integer.MAX_VALUE} occorrenze
+	 */
+	public void add(int element) {
+		add(element, 1);
+	}
+
+	/**
+	 * Rimuove un numero di occorrenze di un elemento da questo multiset. Se le
+	 * occorrenze sono meno di quelle richieste vengono rimosse tutte.
+	 *
+	 * @param element     l'elemento da rimuovere
+	 * @param occurrences il numero di occorrenze da rimuovere, possibilmente zero
+	 * @return il conteggio dell'elemento prima dell'operazione
+	 * @throws IllegalArgumentException se {@code occurrences} è negativo
+	 */
+	public int remove(int element, int occurrences) {
+		if (occurrences < 0)
+			throw new IllegalArgumentException();
+		int cella = cerca(element);
+		int prevCount = conteggi[cella];
+		if (prevCount == 0)
+			return 0;
+		if (prevCount > occurrences) {
+			conteggi[cella] = prevCount - occurrences;
+			totale -= occurrences;
+			aggiorna(element, prevCount, prevCount - occurrences);
+		} else {
+			svuota(cella);
+			distinti--;
+			totale -= prevCount;
+			aggiorna(element, prevCount, 0);
+		}
+		return prevCount;
+	}
+
+	/**
+	 * Rimuove una singola occorrenza di un elemento da questo multiset, se
+	 * presente.
+	 *
+	 * @param element l'elemento da rimuovere
+	 * @return true se un'occorrenza è stata trovata e rimossa
+	 */
+	public boolean remove(int element) {
+		return remove(element, 1) > 0;
+	}
+
+	/**
+	 * Aggiunge o rimuove le occorrenze necessarie perché un elemento abbia il
+	 * conteggio richiesto.
+	 *
+	 * @param element     l'elemento
+	 * @param occurrences il conteggio richiesto
+	 * @return il conteggio dell'elemento prima dell'operazione
+	 * @throws IllegalArgumentException se il conteggio è negativo
+	 */
+	public int setCount(int element, int occurrences) {
+		if (occurrences < 0)
+			throw new IllegalArgumentException();
+		int prevCount = count(element);
+		if (occurrences > prevCount)
+			add(element, occurrences - prevCount);
+		else if (occurrences < prevCount)
+			remove(element, prevCount - occurrences);
+		return prevCount;
+	}
+
+	/**
+	 * Controlla se questo multiset contiene almeno un'occorrenza di un elemento.
+	 *
+	 * @param element l'elemento da cercare
+	 * @return true se l'elemento è contenuto in questo multiset
+	 */
+	public boolean contains(int element) {
+		return count(element) > 0;
+	}
+
+	/**
+	 * Rimuove tutti gli elementi da questo multiset.
+	 */
+	public void clear() {
+		elementi = new int[CAPACITA_INIZIALE];
+		conteggi = new int[CAPACITA_INIZIALE];
+		distinti = 0;
+		totale = 0;
+		hash = 0;
+	}
+
+	/**
+	 * Controlla se questo multiset è vuoto.
+	 *
+	 * @return true se questo multiset non contiene elementi
+	 */
+	public boolean isEmpty() {
+		return totale == 0;
+	}
+
+	/**
+	 * Esegue un'operazione su ogni elemento distinto con il suo conteggio, in un
+	 * ordine non specificato, senza creare oggetti.
+	 *
+	 * @param azione l'operazione da eseguire
+	 * @throws NullPointerException se l'operazione è nulla
+	 */
+	public void forEach(IntIntConsumer azione) {
+		if (azione == null)
+			throw new NullPointerException();
+		for (int i = 0; i < elementi.length; i++)
+			if (conteggi[i] != 0)
+				azione.accept(elementi[i], conteggi[i]);
+	}
+
+	/**
+	 * Restituisce una vista di questo multiset come {@code Multiset<Integer>}. La
+	 * vista legge e modifica direttamente questo multiset; i suoi metodi
+	 * convertono gli elementi da e in oggetti {@code Integer}.
+	 *
+	 * @return una vista di questo multiset
+	 */
+	public Multiset<Integer> asMultiset() {
+		return new Vista();
+	}
+
+	/**
+	 * Restituisce un codice hash uguale a quello di un {@link Multiset} di
+	 * {@code Integer} con gli stessi conteggi.
+	 *
+	 * @return il codice hash di questo multiset
+	 */
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+
+	/**
+	 * Confronta questo multiset con un oggetto. Restituisce true se l'oggetto è
+	 * un {@code IntMultiset} con gli stessi elementi e gli stessi conteggi.
+	 *
+	 * @param obj l'oggetto da confrontare
+	 * @return true se l'oggetto è un multiset uguale a questo
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!(obj instanceof IntMultiset))
+			return false;
+		IntMultiset other = (IntMultiset) obj;
+		if (other.totale != totale || other.distinti != distinti || other.hash != hash)
+			return false;
+		for (int i = 0; i < elementi.length; i++)
+			if (conteggi[i] != 0 && other.count(elementi[i]) != conteggi[i])
+				return false;
+		return true;
+	}
+
+	// Restituisce la prima cella piena a partire da i, o la lunghezza della tabella
+	private int prossima(int i) {
+		while (i < elementi.length && conteggi[i] == 0)
+			i++;
+		return i;
+	}
+
+	// Aggiorna il codice hash quando il conteggio di element cambia
+	private void aggiorna(int element, int prima, int dopo) {
+		int h = Integer.hashCode(element);
+		if (prima > 0)
+			hash -= h ^ prima;
+		if (dopo > 0)
+			hash += h ^ dopo;
+	}
+
+	/*
+	 * Restituisce la cella che contiene l'elemento, oppure la cella vuota dove
+	 * andrebbe inserito.
+	 */
+	private int cerca(int element) {
+		int maschera = elementi.length - 1;
+		int cella = hash(element) & maschera;
+		while (conteggi[cella] != 0 && elementi[cella] != element)
+			cella = (cella + 1) & maschera;
+		return cella;
+	}
+
+	/*
+	 * Svuota una cella spostando indietro le celle successive che altrimenti non
+	 * sarebbero più raggiungibili.
+	 */
+	private void svuota(int cella) {
+		int maschera = elementi.length - 1;
+		int vuota = cella;
+		for (int j = (cella + 1) & maschera; conteggi[j] != 0; j = (j + 1) & maschera) {
+			int ideale = hash(elementi[j]) & maschera;
+			// La cella j può andare nella cella vuota se la sua posizione ideale
+			// non cade tra la cella vuota esclusa e j inclusa
+			if (((j - ideale) & maschera) >= ((j - vuota) & maschera)) {
+				elementi[vuota] = elementi[j];
+				conteggi[vuota] = conteggi[j];
+				vuota = j;
+			}
+		}
+		elementi[vuota] = 0;
+		conteggi[vuota] = 0;
+	}
+
+	// Raddoppia la tabella reinserendo tutti gli elementi
+	private void raddoppia() {
+		int[] vecchiElementi = elementi;
+		int[] vecchiConteggi = conteggi;
+		elementi = new int[2 * vecchiElementi.length];
+		conteggi = new int[elementi.length];
+		for (int i = 0; i < vecchiElementi.length; i++)
+			if (vecchiConteggi[i] != 0) {
+				int cella = cerca(vecchiElementi[i]);
+				elementi[cella] = vecchiElementi[i];
+				conteggi[cella] = vecchiConteggi[i];
+			}
+	}
+
+	// Mescola i bit dell'elemento perché anche i bit bassi dipendano da tutti
+	private static int hash(int element) {
+		int h = element * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	/*
+	 * Vista come Multiset<Integer>: ogni metodo converte gli elementi e chiama il
+	 * metodo primitivo corrispondente. Gli elementi che non sono Integer hanno
+	 * sempre conteggio 0.
+	 */
+	private final class Vista implements Multiset<Integer> {
+		@Override
+		public int size() {
+			return IntMultiset.this.size();
+		}
+
+		@Override
+		public int count(Object element) {
+			if (element == null)
+				throw new NullPointerException();
+			return element instanceof Integer ? IntMultiset.this.count((Integer) element) : 0;
+		}
+
+		@Override
+		public int add(Integer element, int occurrences) {
+			if (element == null)
+				throw new NullPointerException();
+			return IntMultiset.this.add(element, occurrences);
+		}
+
+		@Override
+		public void add(Integer element) {
+			add(element, 1);
+		}
+
+		@Override
+		public int remove(Object element, int occurrences) {
+			if (element == null)
+				throw new NullPointerException();
+			if (occurrences < 0)
+				throw new IllegalArgumentException();
+			return element instanceof Integer ? IntMultiset.this.remove((Integer) element, occurrences) : 0;
+		}
+
+		@Override
+		public boolean remove(Object element) {
+			return remove(element, 1) > 0;
+		}
+
+		@Override
+		public int setCount(Integer element, int occurrences) {
+			if (element == null)
+				throw new NullPointerException();
+			return IntMultiset.this.setCount(element, occurrences);
+		}
+
+		@Override
+		public Set<Integer> elementSet() {
+			Set<Integer> risultato = new HashSet<Integer>();
+			for (int i = 0; i < elementi.length; i++)
+				if (conteggi[i] != 0)
+					risultato.add(elementi[i]);
+			return risultato;
+		}
+
+		@Override
+		public Iterator<Integer> iterator() {
+			return new Iterator<Integer>() {
+				private int cella = -1;
+				private int rimanenti = 0;
+
+				@Override
+				public boolean hasNext() {
+					while (rimanenti == 0 && cella < elementi.length - 1)
+						rimanenti = conteggi[++cella];
+					return rimanenti > 0;
+				}
+
+				@Override
+				public Integer next() {
+					if (!hasNext())
+						throw new NoSuchElementException();
+					rimanenti--;
+					return elementi[cella];
+				}
+			};
+		}
+
+		@Override
+		public Iterator<Map.Entry<Integer, Integer>> entryIterator() {
+			return new Iterator<Map.Entry<Integer, Integer>>() {
+				private int cella = prossima(0);
+
+				@Override
+				public boolean hasNext() {
+					return cella < elementi.length;
+				}
+
+				@Override
+				public Map.Entry<Integer, Integer> next() {
+					if (!hasNext())
+						throw new NoSuchElementException();
+					Map.Entry<Integer, Integer> entry = new AbstractMap.SimpleImmutableEntry<Integer, Integer>(
+							elementi[cella], conteggi[cella]);
+					cella = prossima(cella + 1);
+					return entry;
+				}
+			};
+		}
+
+		@Override
+		public void forEachEntry(BiConsumer<? super Integer, ? super Integer> action) {
+			if (action == null)
+				throw new NullPointerException();
+			for (int i = 0; i < elementi.length; i++)
+				if (conteggi[i] != 0)
+					action.accept(elementi[i], conteggi[i]);
+		}
+
+		@Override
+		public boolean contains(Object element) {
+			return count(element) > 0;
+		}
+
+		@Override
+		public void clear() {
+			IntMultiset.this.clear();
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return IntMultiset.this.isEmpty();
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof Multiset))
+				return false;
+			Multiset<?> other = (Multiset<?>) obj;
+			if (other.size() != size() || (other.getClass() == getClass() && other.hashCode() != hash))
+				return false;
+			if (other.elementSet().size() != distinti)
+				return false;
+			for (int i = 0; i < elementi.length; i++)
+				if (conteggi[i] != 0 && other.count(elementi[i]) != conteggi[i])
+					return false;
+			return true;
+		}
+
+	}
+}
@@ -0,0 +1,19 @@
+package it.unicam.cs.asdl1819.miniproject1;
+
+/**
+ * Un'operazione che riceve un elemento {@code long} e il suo conteggio, senza
+ * convertirli in oggetti. Viene usata da {@link LongMultiset#forEach}.
+ *
+ * @author Alex Citeroni
+ *
+ */
+@FunctionalInterface
+public interface LongIntConsumer {
+	/**
+	 * Esegue l'operazione.
+	 *
+	 * @param element l'elemento
+	 * @param count   il conteggio dell'elemento
+	 */
+	void accept(long element, int count);
+}
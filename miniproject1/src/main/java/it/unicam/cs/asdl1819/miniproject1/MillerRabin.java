@@ -0,0 +1,110 @@
+package it.unicam.cs.asdl1819.miniproject1;
+
+/**
+ * Test di primalità di Miller-Rabin deterministico per numeri {@code int} e
+ * {@code long}. Per questi intervalli sono noti insiemi di basi che bastano a
+ * riconoscere tutti i numeri composti, quindi il test non sbaglia mai e costa
+ * {@code O(log n)} moltiplicazioni modulari. Per i numeri {@code long} le
+ * moltiplicazioni usano l'aritmetica di Montgomery.
+ *
+ * Diversamente da {@link CrivelloDiEratostene#isPrime(int)}, il numero
+ * {@code 1} non è considerato primo.
+ *
+ * @author Alex Citeroni
+ *
+ */
+public final class MillerRabin {
+	// Basi sufficienti per tutti i numeri minori di 2^32
+	private static final int[] BASI_INT = { 2, 7, 61 };
+	// Basi sufficienti per tutti i numeri minori di 2^64 (Jim Sinclair)
+	private static final long[] BASI_LONG = { 2, 325, 9375, 28178, 450775, 9780504, 1795265022 };
+	// Primi piccoli usati per scartare subito i numeri con un fattore piccolo
+	private static final int[] PICCOLI = { 3, 5, 7, 11, 13, 17, 19, 23, 29, 31, 37 };
+
+	private MillerRabin() {
+	}
+
+	/**
+	 * Controlla se un numero {@code int} è primo.
+	 *
+	 * @param n il numero da controllare
+	 * @return true se il numero passato è primo
+	 */
+	public static boolean isPrime(int n) {
+		if (n < 2)
+			return false;
+		if (n % 2 == 0)
+			return n == 2;
+		for (int p : PICCOLI)
+			if (n % p == 0)
+				return n == p;
+		// Scompongo n - 1 come d * 2^s con d dispari
+		int s = Integer.numberOfTrailingZeros(n - 1);
+		long d = (n - 1) >>> s;
+		for (int base : BASI_INT)
+			if (base % n != 0 && testimone(base % n, d, s, n))
+				return false;
+		return true;
+	}
+
+	/**
+	 * Controlla se un numero {@code long} è primo.
+	 *
+	 * @param n il numero da controllare
+	 * @return true se il numero passato è primo
+	 */
+	public static boolean isPrime(long n) {
+		if (n <= Integer.MAX_VALUE)
+			return isPrime((int) Math.max(n, 0));
+		if (n % 2 == 0)
+			return false;
+		for (int p : PICCOLI)
+			if (n % p == 0)
+				return false;
+		Montgomery m = new Montgomery(n);
+		int s = Long.numberOfTrailingZeros(n - 1);
+		long d = (n - 1) >>> s;
+		long uno = m.uno();
+		long menoUno = n - uno;
+		for (long base : BASI_LONG) {
+			long a = base % n;
+			if (a == 0)
+				continue;
+			long x = m.potenza(m.verso(a), d);
+			if (x == uno || x == menoUno)
+				continue;
+			// Elevo al quadrato finché non trovo -1
+			int r = 1;
+			for (; r < s; r++) {
+				x = m.moltiplica(x, x);
+				if (x == menoUno)
+					break;
+			}
+			if (r == s)
+				return false;
+		}
+		return true;
+	}
+
+	/*
+	 * Restituisce true se la base dimostra che n è composto. Con n minore di 2^31
+	 * i prodotti stanno in un long.
+	 */
+	private static boolean testimone(long base, long d, int s, long n) {
+		long x = 1;
+		// Potenza modulare base^d mod n
+		for (long e = d; e != 0; e >>>= 1) {
+			if ((e & 1) != 0)
+				x = x * base % n;
+			base = base * base % n;
+		}
+		if (x == 1 || x == n - 1)
+			return false;
+		for (int r = 1; r < s; r++) {
+			x = x * x % n;
+			if (x == n - 1)
+				return false;
+		}
+		return true;
+	}
+}
@@ -0,0 +1,139 @@
+package it.unicam.cs.asdl1819.miniproject1;
+
+/**
+ * Aritmetica modulare nella forma di Montgomery per un modulo dispari minore di
+ * {@code 2^63}, con {@code R = 2^64}. I prodotti modulari vengono calcolati
+ * senza divisioni: il prodotto a 128 bit viene ridotto con una moltiplicazione
+ * e una sottrazione.
+ *
+ * @author Alex Citeroni
+ *
+ */
+final class Montgomery {
+	private final long modulo;
+	// Inverso del modulo modulo 2^64
+	private final long inverso;
+	// R^2 mod modulo, per portare i numeri nella forma di Montgomery
+	private final long r2;
+	// La rappresentazione di 1 nella forma di Montgomery, cioè R mod modulo
+	private final long uno;
+
+	/**
+	 * Prepara l'aritmetica per un modulo dato.
+	 *
+	 * @param modulo il modulo, dispari e maggiore di 1
+	 */
+	Montgomery(long modulo) {
+		this.modulo = modulo;
+		// Metodo di Newton: ogni passo raddoppia i bit corretti dell'inverso
+		long inv = modulo;
+		for (int i = 0; i < 5; i++)
+			inv *= 2 - modulo * inv;
+		this.inverso = inv;
+		// 2^64 mod modulo, poi raddoppiato 64 volte per ottenere 2^128 mod modulo
+		long r = Long.remainderUnsigned(-modulo, modulo);
+		this.uno = r;
+		for (int i = 0; i < 64; i++) {
+			r <<= 1;
+			if (r < 0 || r >= modulo)
+				r -= modulo;
+		}
+		this.r2 = r;
+	}
+
+	/**
+	 * Restituisce il modulo.
+	 *
+	 * @return il modulo
+	 */
+	long modulo() {
+		return modulo;
+	}
+
+	/**
+	 * Restituisce la rappresentazione di 1.
+	 *
+	 * @return {@code R mod modulo}
+	 */
+	long uno() {
+		return uno;
+	}
+
+	/**
+	 * Porta un numero nella forma di Montgomery.
+	 *
+	 * @param a un numero tra 0 e il modulo escluso
+	 * @return {@code a * R mod modulo}
+	 */
+	long verso(long a) {
+		return moltiplica(a, r2);
+	}
+
+	/**
+	 * Riporta un numero dalla forma di Montgomery alla forma usuale.
+	 *
+	 * @param a un numero nella forma di Montgomery
+	 * @return {@code a / R mod modulo}
+	 */
+	long da(long a) {
+		return riduci(0, a);
+	}
+
+	/**
+	 * Moltiplica due numeri nella forma di Montgomery.
+	 *
+	 * @param a il primo fattore
+	 * @param b il secondo fattore
+	 * @return il prodotto nella forma di Montgomery
+	 */
+	long moltiplica(long a, long b) {
+		return riduci(parteAlta(a, b), a * b);
+	}
+
+	/**
+	 * Eleva a potenza un numero nella forma di Montgomery.
+	 *
+	 * @param base      la base nella forma di Montgomery
+	 * @param esponente l'esponente, non negativo
+	 * @return la potenza nella forma di Montgomery
+	 */
+	long potenza(long base, long esponente) {
+		long risultato = uno;
+		while (esponente != 0) {
+			if ((esponente & 1) != 0)
+				risultato = moltiplica(risultato, base);
+			base = moltiplica(base, base);
+			esponente >>>= 1;
+		}
+		return risultato;
+	}
+
+	/*
+	 * Riduzione di Montgomery del numero a 128 bit alto * 2^64 + basso, che deve
+	 * essere minore di modulo * 2^64.
+	 */
+	private long riduci(long alto, long basso) {
+		// m è scelto in modo che basso - m * modulo sia nullo nei 64 bit bassi
+		long m = basso * inverso;
+		long t = alto - parteAlta(m, modulo);
+		return t < 0 ? t + modulo : t;
+	}
+
+	/**
+	 * Calcola i 64 bit alti del prodotto senza segno di due numeri a 64 bit.
+	 *
+	 * @param a il primo fattore
+	 * @param b il secondo fattore
+	 * @return la parte alta del prodotto a 128 bit
+	 */
+	static long parteAlta(long a, long b) {
+		long a0 = a & 0xFFFFFFFFL;
+		long a1 = a >>> 32;
+		long b0 = b & 0xFFFFFFFFL;
+		long b1 = b >>> 32;
+		long basso = a0 * b0;
+		long medio1 = a1 * b0 + (basso >>> 32);
+		long medio2 = a0 * b1 + (medio1 & 0xFFFFFFFFL);
+		return a1 * b1 + (medio1 >>> 32) + (medio2 >>> 32);
+	}
+}
@@ -1,7 +1,10 @@
 package it.unicam.cs.asdl1819.miniproject1;
 
+import java.util.AbstractMap;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.BiConsumer;
 
 /**
  * A multiset (also called bag) is a set in which the elements have a count (or
@@ -125,6 +128,51 @@ public interface Multiset<E> {
 	 */
 	public Iterator<E> iterator();
 
+	/**
+	 * Returns an iterator over the distinct elements of this multiset, each
+	 * paired with its count. Every element is presented exactly once, so the cost
+	 * of a full iteration depends on the number of distinct elements and not on
+	 * the number of occurrences. The iterator is not required to implement the
+	 * remove operation.
+	 * 
+	 * The default implementation iterates {@link #elementSet()} and asks the
+	 * count of each element; implementations should override it to walk their
+	 * own representation.
+	 * 
+	 * @return an iterator over the (element, count) pairs of this multiset
+	 */
+	public default Iterator<Map.Entry<E, Integer>> entryIterator() {
+		final Iterator<E> elements = elementSet().iterator();
+		return new Iterator<Map.Entry<E, Integer>>() {
+			@Override
+			public boolean hasNext() {
+				return elements.hasNext();
+			}
+
+			@Override
+			public Map.Entry<E, Integer> next() {
+				E element = elements.next();
+				return new AbstractMap.SimpleImmutableEntry<E, Integer>(element, count(element));
+			}
+		};
+	}
+
+	/**
+	 * Performs an action on every distinct element of this multiset together with
+	 * its count, in the order of {@link #entryIterator()}.
+	 * 
+	 * @param action the action to perform
+	 * @throws NullPointerException if {@code action} is null
+	 */
+	public default void forEachEntry(BiConsumer<? super E, ? super Integer> action) {
+		if (action == null)
+			throw new NullPointerException();
+		for (Iterator<Map.Entry<E, Integer>> it = entryIterator(); it.hasNext();) {
+			Map.Entry<E, Integer> entry = it.next();
+			action.accept(entry.getKey(), entry.getValue());
+		}
+	}
+
 	/**
 	 * Determines whether this multiset contains the specified element.
 	 *
@@ -1,14 +1,20 @@
 package it.unicam.cs.asdl1819.miniproject1;
 
+import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.HashSet; // Utilizzare questa classe per i set
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.function.BiConsumer;
 
 /**
  * Questa classe, MyMultiset, utilizza due List: una per memorizzare gli elementi
- * distinti e un'altra per memorizzare i loro conteggi.
+ * distinti e un'altra per memorizzare i loro conteggi. Il numero totale di
+ * occorrenze e il codice hash vengono aggiornati a ogni modifica, quindi
+ * {@link #size()} e {@link #hashCode()} costano un tempo costante.
  * 
  * @author Luca Tesei (template) **Alex Citeroni** (implementazione)
  *
@@ -19,6 +25,10 @@ public class MyMultiset<E> implements Multiset<E> {
 	private List<E> values;
 	// Elenco per memorizzare la freuquenza dei valori
 	private List<Integer> frequency;
+	// Numero totale di occorrenze
+	private long dimensione;
+	// Somma di element.hashCode() ^ count sugli elementi distinti
+	private int hash;
 
 	/**
 	 * Crea un multiset vuoto.
@@ -30,15 +40,13 @@ public class MyMultiset<E> implements Multiset<E> {
 
 	/*
 	 * Restituisce il numero totale di elementi in questo multiset, contando tutte
-	 * le occorrenze.
+	 * le occorrenze. Se il numero supera Integer.MAX_VALUE viene restituito
+	 * Integer.MAX_VALUE.
 	 * 
 	 * @return Numero totale di elementi in questo multiset
 	 */
 	public int size() {
-		int numeroTotaleElementi = 0;
-		for (Object obj : values)
-			numeroTotaleElementi += frequency.get(values.indexOf(obj));
-		return numeroTotaleElementi;
+		return (int) Math.min(dimensione, Integer.MAX_VALUE);
 	}
 
 	/*
@@ -86,9 +94,11 @@ public class MyMultiset<E> implements Multiset<E> {
 			if (prevCount == Integer.MAX_VALUE)
 				throw new IllegalArgumentException();
 			frequency.set(values.indexOf(element), prevCount + occurrences);
+			aggiorna(element, prevCount, prevCount + occurrences);
 		} else if (occurrences != 0) {
 			values.add(element);
 			frequency.add(occurrences);
+			aggiorna(element, 0, occurrences);
 		}
 		return prevCount;
 	}
@@ -134,11 +144,13 @@ public class MyMultiset<E> implements Multiset<E> {
 		if (index == -1)
 			return 0;
 		int prevCount = frequency.get(index);
-		if (prevCount > occurrences)
+		if (prevCount > occurrences) {
 			frequency.set(index, prevCount - occurrences);
-		else {
+			aggiorna(element, prevCount, prevCount - occurrences);
+		} else {
 			values.remove(index);
 			frequency.remove(index);
+			aggiorna(element, prevCount, 0);
 		}
 		return prevCount;
 	}
@@ -207,16 +219,76 @@ public class MyMultiset<E> implements Multiset<E> {
 	}
 
 	/*
-	 * Restituisce un iteratore per il multiset.
+	 * Restituisce un iteratore per il multiset. L'iteratore scorre le coppie
+	 * (elemento, occorrenze rimanenti) senza copiare le occorrenze.
 	 * 
 	 * @return Un iteratore per questo multiset
 	 */
 	public Iterator<E> iterator() {
-		List<E> list = new ArrayList<E>();
+		return new Iterator<E>() {
+			// Posizione dell'elemento corrente e sue occorrenze ancora da presentare
+			private int indice = -1;
+			private int rimanenti = 0;
+
+			@Override
+			public boolean hasNext() {
+				while (rimanenti == 0 && indice < values.size() - 1)
+					rimanenti = frequency.get(++indice);
+				return rimanenti > 0;
+			}
+
+			@Override
+			public E next() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+				rimanenti--;
+				return values.get(indice);
+			}
+		};
+	}
+
+	/*
+	 * Restituisce un iteratore sugli elementi distinti, ognuno con il suo
+	 * conteggio, nell'ordine di inserimento.
+	 * 
+	 * @return Un iteratore sulle coppie (elemento, conteggio)
+	 */
+	@Override
+	public Iterator<Map.Entry<E, Integer>> entryIterator() {
+		return new Iterator<Map.Entry<E, Integer>>() {
+			private int indice = 0;
+
+			@Override
+			public boolean hasNext() {
+				return indice < values.size();
+			}
+
+			@Override
+			public Map.Entry<E, Integer> next() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+				Map.Entry<E, Integer> entry = new AbstractMap.SimpleImmutableEntry<E, Integer>(values.get(indice),
+						frequency.get(indice));
+				indice++;
+				return entry;
+			}
+		};
+	}
+
+	/*
+	 * Esegue un'operazione su ogni elemento distinto con il suo conteggio, senza
+	 * creare coppie.
+	 * 
+	 * @param action L'operazione da eseguire
+	 * 
+	 * @throws NullPointerException Se action fosse nullo
+	 */
+	@Override
+	public void forEachEntry(BiConsumer<? super E, ? super Integer> action) {
+		if (action == null)
+			throw new NullPointerException();
 		for (int i = 0; i < values.size(); i++)
-			for (int j = 0; j < frequency.get(i); j++)
-				list.add(values.get(i));
-		return list.iterator();
+			action.accept(values.get(i), frequency.get(i));
 	}
 
 	/*
@@ -239,6 +311,8 @@ public class MyMultiset<E> implements Multiset<E> {
 	public void clear() {
 		values.clear();
 		frequency.clear();
+		dimensione = 0;
+		hash = 0;
 	}
 
 	// @return Vero quando questo multiset è vuoto
@@ -246,14 +320,11 @@ public class MyMultiset<E> implements Multiset<E> {
 		return values.size() == 0;
 	}
 	
-	// @return Un hashCode per questo MultiSet
+	// @return Un hashCode per questo MultiSet, indipendente dall'ordine degli
+	// elementi
     @Override
 	public int hashCode() {
-		final int prime = 31;
-		int result = 1;
-		result = prime * result + ((frequency == null) ? 0 : frequency.hashCode());
-		result = prime * result + ((values == null) ? 0 : values.hashCode());
-		return result;
+		return hash;
 	}
 
 	/**
@@ -263,12 +334,30 @@ public class MyMultiset<E> implements Multiset<E> {
 	 */
 	@Override
 	public boolean equals(Object obj) {
-		if (obj == null)
+		if (this == obj)
+			return true;
+		if (!(obj instanceof Multiset))
+			return false;
+		Multiset<?> other = (Multiset<?>) obj;
+		// Due multiset con dimensioni diverse, o della stessa classe con codici
+		// hash diversi, sono certamente diversi
+		if (other.size() != size() || (other.getClass() == getClass() && other.hashCode() != hash))
+			return false;
+		if (other.elementSet().size() != values.size())
 			return false;
-		MyMultiset<?> other = (MyMultiset<?>) obj;
-		if (values.containsAll(other.values))
-			if (frequency.containsAll(other.frequency))
-				return true;
-		return false;
+		for (int i = 0; i < values.size(); i++)
+			if (other.count(values.get(i)) != frequency.get(i))
+				return false;
+		return true;
+	}
+
+	// Aggiorna dimensione e codice hash quando il conteggio di element cambia
+	private void aggiorna(Object element, int prima, int dopo) {
+		dimensione += (long) dopo - prima;
+		int h = element.hashCode();
+		if (prima > 0)
+			hash -= h ^ prima;
+		if (dopo > 0)
+			hash += h ^ dopo;
 	}
 }
\ No newline at end of file
@@ -0,0 +1,217 @@
+package it.unicam.cs.asdl1819.miniproject1;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Operazioni in blocco tra due multiset: unione (il massimo dei conteggi),
+ * intersezione (il minimo), somma e differenza (la differenza dei conteggi,
+ * senza scendere sotto 0).
+ *
+ * Ogni operazione visita una sola volta gli elementi distinti dei due
+ * multiset con {@link Multiset#forEachEntry(BiConsumer)} e chiede i conteggi a
+ * una {@link HashMultiset}, quindi costa {@code O(d1 + d2)} invece di una
+ * chiamata di {@code count} o di {@code add} per ogni elemento. Un
+ * {@link MyMultiset}, il cui {@code count} scorre tutta la lista, viene prima
+ * copiato in una {@link HashMultiset}.
+ *
+ * Le versioni {@code InPlace} modificano il primo multiset senza costruirne
+ * un terzo; le altre restituiscono una nuova {@link HashMultiset} e non
+ * modificano i parametri.
+ *
+ * @author Alex Citeroni
+ *
+ */
+public final class OperazioniSuMultiset {
+	private OperazioniSuMultiset() {
+	}
+
+	/**
+	 * Restituisce l'unione di due multiset: ogni elemento compare con il massimo
+	 * dei suoi due conteggi.
+	 *
+	 * @param <E> il tipo degli elementi
+	 * @param a   il primo multiset
+	 * @param b   il secondo multiset
+	 * @return un nuovo multiset con l'unione
+	 * @throws NullPointerException se uno dei multiset è nullo
+	 */
+	public static <E> HashMultiset<E> union(Multiset<? extends E> a, Multiset<? extends E> b) {
+		HashMultiset<E> risultato = copia(a);
+		unionInPlace(risultato, b);
+		return risultato;
+	}
+
+	/**
+	 * Porta il conteggio di ogni elemento di {@code a} al massimo tra il suo
+	 * conteggio e quello in {@code b}.
+	 *
+	 * @param <E> il tipo degli elementi
+	 * @param a   il multiset da modificare
+	 * @param b   il secondo multiset, che non viene modificato
+	 * @throws NullPointerException se uno dei multiset è nullo
+	 */
+	public static <E> void unionInPlace(final HashMultiset<E> a, Multiset<? extends E> b) {
+		b.forEachEntry(new BiConsumer<E, Integer>() {
+			@Override
+			public void accept(E element, Integer conteggio) {
+				if (conteggio > a.count(element))
+					a.setCount(element, conteggio);
+			}
+		});
+	}
+
+	/**
+	 * Restituisce l'intersezione di due multiset: ogni elemento compare con il
+	 * minimo dei suoi due conteggi.
+	 *
+	 * @param <E> il tipo degli elementi
+	 * @param a   il primo multiset
+	 * @param b   il secondo multiset
+	 * @return un nuovo multiset con l'intersezione
+	 * @throws NullPointerException se uno dei multiset è nullo
+	 */
+	public static <E> HashMultiset<E> intersection(Multiset<? extends E> a, Multiset<? extends E> b) {
+		final HashMultiset<E> risultato = new HashMultiset<E>();
+		final Multiset<?> conteggi = conteggiVeloci(b);
+		a.forEachEntry(new BiConsumer<E, Integer>() {
+			@Override
+			public void accept(E element, Integer conteggio) {
+				int minimo = Math.min(conteggio, conteggi.count(element));
+				if (minimo > 0)
+					risultato.add(element, minimo);
+			}
+		});
+		return risultato;
+	}
+
+	/**
+	 * Porta il conteggio di ogni elemento di {@code a} al minimo tra il suo
+	 * conteggio e quello in {@code b}.
+	 *
+	 * @param <E> il tipo degli elementi
+	 * @param a   il multiset da modificare
+	 * @param b   il secondo multiset, che non viene modificato
+	 * @throws NullPointerException se uno dei multiset è nullo
+	 */
+	public static <E> void intersectionInPlace(HashMultiset<E> a, Multiset<?> b) {
+		final Multiset<?> conteggi = conteggiVeloci(b);
+		// La tabella non può cambiare durante la visita: raccolgo prima gli
+		// elementi da ridurre
+		final List<E> elementi = new ArrayList<E>();
+		a.forEachEntry(new BiConsumer<E, Integer>() {
+			@Override
+			public void accept(E element, Integer conteggio) {
+				if (conteggi.count(element) < conteggio)
+					elementi.add(element);
+			}
+		});
+		for (E element : elementi)
+			a.setCount(element, conteggi.count(element));
+	}
+
+	/**
+	 * Restituisce la somma di due multiset: ogni elemento compare con la somma
+	 * dei suoi due conteggi.
+	 *
+	 * @param <E> il tipo degli elementi
+	 * @param a   il primo multiset
+	 * @param b   il secondo multiset
+	 * @return un nuovo multiset con la somma
+	 * @throws IllegalArgumentException se un elemento avrebbe più di
+	 *                                  {@code Integer.MAX_VALUE} occorrenze
+	 * @throws NullPointerException     se uno dei multiset è nullo
+	 */
+	public static <E> HashMultiset<E> sum(Multiset<? extends E> a, Multiset<? extends E> b) {
+		HashMultiset<E> risultato = copia(a);
+		sumInPlace(risultato, b);
+		return risultato;
+	}
+
+	/**
+	 * Aggiunge ad {@code a} tutte le occorrenze di {@code b}. Se un elemento
+	 * supera {@code Integer.MAX_VALUE} occorrenze l'operazione si interrompe e
+	 * gli elementi già visitati restano sommati.
+	 *
+	 * @param <E> il tipo degli elementi
+	 * @param a   il multiset da modificare
+	 * @param b   il secondo multiset, che non viene modificato
+	 * @throws IllegalArgumentException se un elemento avrebbe più di
+	 *                                  {@code Integer.MAX_VALUE} occorrenze
+	 * @throws NullPointerException     se uno dei multiset è nullo
+	 */
+	public static <E> void sumInPlace(final HashMultiset<E> a, Multiset<? extends E> b) {
+		b.forEachEntry(new BiConsumer<E, Integer>() {
+			@Override
+			public void accept(E element, Integer conteggio) {
+				a.add(element, conteggio);
+			}
+		});
+	}
+
+	/**
+	 * Restituisce la differenza di due multiset: ogni elemento di {@code a}
+	 * compare con il suo conteggio meno quello in {@code b}, se è positivo.
+	 *
+	 * @param <E> il tipo degli elementi
+	 * @param a   il primo multiset
+	 * @param b   il multiset da sottrarre
+	 * @return un nuovo multiset con la differenza
+	 * @throws NullPointerException se uno dei multiset è nullo
+	 */
+	public static <E> HashMultiset<E> difference(Multiset<? extends E> a, Multiset<?> b) {
+		final HashMultiset<E> risultato = new HashMultiset<E>();
+		final Multiset<?> conteggi = conteggiVeloci(b);
+		a.forEachEntry(new BiConsumer<E, Integer>() {
+			@Override
+			public void accept(E element, Integer conteggio) {
+				int resto = conteggio - conteggi.count(element);
+				if (resto > 0)
+					risultato.add(element, resto);
+			}
+		});
+		return risultato;
+	}
+
+	/**
+	 * Toglie da {@code a} le occorrenze di {@code b}, senza scendere sotto 0.
+	 *
+	 * @param a il multiset da modificare
+	 * @param b il multiset da sottrarre, che non viene modificato
+	 * @throws NullPointerException se uno dei multiset è nullo
+	 */
+	public static void differenceInPlace(final HashMultiset<?> a, Multiset<?> b) {
+		// Se b è a stesso la tabella non può cambiare durante la visita: tolgo
+		// tutto in una volta
+		if (a == b) {
+			a.clear();
+			return;
+		}
+		b.forEachEntry(new BiConsumer<Object, Integer>() {
+			@Override
+			public void accept(Object element, Integer conteggio) {
+				a.remove(element, conteggio);
+			}
+		});
+	}
+
+	// Copia un multiset in una nuova HashMultiset
+	private static <E> HashMultiset<E> copia(Multiset<? extends E> m) {
+		final HashMultiset<E> copia = new HashMultiset<E>();
+		m.forEachEntry(new BiConsumer<E, Integer>() {
+			@Override
+			public void accept(E element, Integer conteggio) {
+				copia.add(element, conteggio);
+			}
+		});
+		return copia;
+	}
+
+	// Restituisce un multiset uguale con count in tempo costante o logaritmico
+	private static <E> Multiset<? extends E> conteggiVeloci(Multiset<? extends E> m) {
+		if (m == null)
+			throw new NullPointerException();
+		return m instanceof MyMultiset ? copia(m) : m;
+	}
+}
@@ -0,0 +1,121 @@
+package it.unicam.cs.asdl1819.miniproject1;
+
+/**
+ * Un segmento di crivello contiene i numeri primi di un intervallo
+ * {@code [lo, hi]} qualsiasi. Il segmento viene setacciato usando solo i primi
+ * fino alla radice di {@code hi}, senza setacciare i numeri da {@code 2} a
+ * {@code lo}, quindi il costo dipende dall'ampiezza dell'intervallo e non dalla
+ * sua posizione.
+ *
+ * Come nel crivello di Eratostene vengono memorizzati solo i numeri dispari,
+ * uno per bit. Per convenzione il numero {@code 1} non è primo.
+ *
+ * @author Alex Citeroni
+ *
+ */
+public class SegmentoDiCrivello {
+	/**
+	 * Massimo estremo superiore di un segmento: i primi base devono essere
+	 * rappresentabili con un {@code int}.
+	 */
+	public static final long MASSIMO = (long) Integer.MAX_VALUE * Integer.MAX_VALUE;
+
+	private long lo;
+	private long hi;
+	// Tabella di bit dei numeri dispari dell'intervallo
+	private long[] composti;
+	// Indice assoluto del primo bit della tabella
+	private long primoBit;
+	// Indice assoluto successivo all'ultimo bit significativo
+	private long fineBit;
+
+	/**
+	 * Costruisce il segmento di crivello dei numeri compresi tra {@code lo} e
+	 * {@code hi} inclusi.
+	 *
+	 * @param lo il primo numero del segmento
+	 * @param hi l'ultimo numero del segmento
+	 *
+	 * @throws IllegalArgumentException se {@code lo} è minore di 1, se {@code hi}
+	 *                                  è minore di {@code lo} o maggiore di
+	 *                                  {@link #MASSIMO}, o se l'intervallo è
+	 *                                  troppo ampio per essere memorizzato
+	 */
+	public SegmentoDiCrivello(long lo, long hi) {
+		// Verifico che l'intervallo sia valido
+		if (lo < 1 || hi < lo || hi > MASSIMO)
+			throw new IllegalArgumentException();
+		long da = lo >>> 1;
+		this.fineBit = (hi + 1) >>> 1;
+		this.primoBit = da & ~63L;
+		long parole = (fineBit - primoBit + 63) >>> 6;
+		// Verifico che la tabella si possa allocare
+		if (parole > Integer.MAX_VALUE - 8)
+			throw new IllegalArgumentException();
+		this.lo = lo;
+		this.hi = hi;
+		this.composti = new long[(int) parole];
+		Setaccio.setacciaASegmenti(composti, primoBit, da, fineBit, Setaccio.primiBase((int) Setaccio.radice(hi)),
+				Setaccio.DIMENSIONE_SEGMENTO);
+		// 1 non è primo
+		if (primoBit == 0)
+			composti[0] |= 1L;
+	}
+
+	/**
+	 * Restituisce il primo numero di questo segmento.
+	 *
+	 * @return il primo numero di questo segmento
+	 */
+	public long getLo() {
+		return lo;
+	}
+
+	/**
+	 * Restituisce l'ultimo numero di questo segmento.
+	 *
+	 * @return l'ultimo numero di questo segmento
+	 */
+	public long getHi() {
+		return hi;
+	}
+
+	/**
+	 * Controlla se un numero del segmento è primo.
+	 *
+	 * @param n il numero da controllare
+	 * @return true se il numero passato è primo
+	 * @throws IllegalArgumentException se il numero {@code n} non appartiene a
+	 *                                  questo segmento
+	 */
+	public boolean isPrime(long n) {
+		// Verifico che n appartenga al segmento
+		if (n < lo || n > hi)
+			throw new IllegalArgumentException();
+		// 2 è l'unico primo pari
+		if (n % 2 == 0)
+			return n == 2;
+		long i = (n >>> 1) - primoBit;
+		return (composti[(int) (i >>> 6)] & (1L << i)) == 0;
+	}
+
+	/**
+	 * Cerca nel segmento il numero primo successivo a un numero dato.
+	 *
+	 * @param n il numero da cui partire
+	 * @return il numero primo successivo a {@code n} in questo segmento oppure -1
+	 *         se in questo segmento non ci sono numeri primi maggiori di {@code n}
+	 * @throws IllegalArgumentException se il numero {@code n} è minore di
+	 *                                  {@code lo - 1} o maggiore di {@code hi}
+	 */
+	public long nextPrime(long n) {
+		// Verifico che n sia nel segmento o lo preceda immediatamente
+		if (n < lo - 1 || n > hi)
+			throw new IllegalArgumentException();
+		// 2 è l'unico primo pari
+		if (n < 2 && hi >= 2)
+			return 2;
+		long i = Setaccio.prossimoSpento(composti, primoBit, Math.max((n + 1) >>> 1, lo >>> 1), fineBit);
+		return i == -1 ? -1 : 2 * i + 1;
+	}
+}
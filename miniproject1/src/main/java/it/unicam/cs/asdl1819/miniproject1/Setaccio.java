@@ -0,0 +1,224 @@
+package it.unicam.cs.asdl1819.miniproject1;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Procedure di supporto per i crivelli a segmenti. Tutte le tabelle
+ * rappresentano solo i numeri dispari: il bit di indice {@code i} corrisponde al
+ * numero {@code 2i + 1} ed è acceso se il numero è composto. Una tabella può
+ * coprire solo una parte dei numeri: in questo caso il suo primo bit corrisponde
+ * all'indice assoluto {@code primoBit}, che è sempre multiplo di 64.
+ *
+ * @author Alex Citeroni
+ *
+ */
+final class Setaccio {
+	/**
+	 * Dimensione predefinita in byte di un segmento, scelta in modo che un
+	 * segmento stia nella cache L1.
+	 */
+	static final int DIMENSIONE_SEGMENTO = 32 * 1024;
+
+	private Setaccio() {
+	}
+
+	/**
+	 * Calcola la parte intera della radice quadrata di un numero non negativo.
+	 *
+	 * @param n il numero
+	 * @return il più grande {@code r} tale che {@code r * r <= n}
+	 */
+	static long radice(long n) {
+		long r = (long) Math.sqrt((double) n);
+		// Correggo gli errori di arrotondamento del double
+		while (r * r > n)
+			r--;
+		while ((r + 1) * (r + 1) <= n)
+			r++;
+		return r;
+	}
+
+	/**
+	 * Calcola i numeri primi dispari minori o uguali a un limite, da usare come
+	 * primi base di un crivello a segmenti.
+	 *
+	 * @param limite il limite superiore
+	 * @return i primi dispari fino a {@code limite} in ordine crescente
+	 */
+	static int[] primiBase(int limite) {
+		if (limite < 3)
+			return new int[0];
+		long fine = ((long) limite + 1) >>> 1;
+		long[] parole = new long[(int) ((fine + 63) >>> 6)];
+		// I primi base di questa tabella si trovano ricorsivamente
+		setacciaASegmenti(parole, 0, 0, fine, primiBase((int) radice(limite)), DIMENSIONE_SEGMENTO);
+		// 1 non è primo
+		parole[0] |= 1L;
+		// Conto i bit spenti per allocare il risultato
+		int quanti = 0;
+		for (long i = prossimoSpento(parole, 0, 0, fine); i != -1; i = prossimoSpento(parole, 0, i + 1, fine))
+			quanti++;
+		int[] primi = new int[quanti];
+		quanti = 0;
+		for (long i = prossimoSpento(parole, 0, 0, fine); i != -1; i = prossimoSpento(parole, 0, i + 1, fine))
+			primi[quanti++] = (int) (2 * i + 1);
+		return primi;
+	}
+
+	/**
+	 * Segna i numeri dispari composti con indice in {@code [da, a)} elaborandoli
+	 * a finestre di {@code dimensioneSegmento} byte, così che ogni finestra
+	 * resti nella cache mentre viene setacciata. I bit devono essere già spenti.
+	 *
+	 * @param parole             la tabella da riempire
+	 * @param primoBit           l'indice assoluto del primo bit della tabella
+	 * @param da                 il primo indice da setacciare
+	 * @param a                  l'indice successivo all'ultimo da setacciare
+	 * @param primi              i primi dispari fino almeno alla radice di
+	 *                           {@code 2a - 1}, in ordine crescente
+	 * @param dimensioneSegmento la dimensione in byte di una finestra
+	 */
+	static void setacciaASegmenti(long[] parole, long primoBit, long da, long a, int[] primi,
+			int dimensioneSegmento) {
+		long bitPerSegmento = 8L * dimensioneSegmento;
+		for (long inizio = da; inizio < a; inizio += bitPerSegmento)
+			setaccia(parole, primoBit, inizio, Math.min(a, inizio + bitPerSegmento), primi);
+	}
+
+	/**
+	 * Come {@link #setacciaASegmenti(long[], long, long, long, int[], int)}, ma le
+	 * finestre vengono setacciate in parallelo su un {@link ForkJoinPool} con il
+	 * parallelismo indicato. Se {@code da - primoBit} è multiplo di 64 ogni
+	 * finestra scrive su parole diverse della tabella, quindi il risultato è
+	 * identico a quello sequenziale.
+	 *
+	 * @param parole             la tabella da riempire
+	 * @param primoBit           l'indice assoluto del primo bit della tabella
+	 * @param da                 il primo indice da setacciare
+	 * @param a                  l'indice successivo all'ultimo da setacciare
+	 * @param primi              i primi dispari fino almeno alla radice di
+	 *                           {@code 2a - 1}, in ordine crescente
+	 * @param dimensioneSegmento la dimensione in byte di una finestra, multipla di
+	 *                           8
+	 * @param parallelismo       il numero di thread da usare
+	 */
+	static void setacciaInParallelo(long[] parole, long primoBit, long da, long a, int[] primi,
+			int dimensioneSegmento, int parallelismo) {
+		if (parallelismo == 1) {
+			setacciaASegmenti(parole, primoBit, da, a, primi, dimensioneSegmento);
+			return;
+		}
+		long bitPerSegmento = 8L * dimensioneSegmento;
+		ForkJoinPool pool = new ForkJoinPool(parallelismo);
+		try {
+			pool.invoke(new CompitoSetaccio(parole, primoBit, da, a, primi, bitPerSegmento, 0,
+					(a - da + bitPerSegmento - 1) / bitPerSegmento));
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Segna i numeri dispari composti con indice in {@code [da, a)} usando i primi
+	 * base passati. I multipli di ogni primo {@code p} sono cancellati a partire
+	 * da {@code p * p}, quindi i primi base stessi non vengono mai segnati.
+	 *
+	 * @param parole   la tabella da riempire
+	 * @param primoBit l'indice assoluto del primo bit della tabella
+	 * @param da       il primo indice da setacciare
+	 * @param a        l'indice successivo all'ultimo da setacciare
+	 * @param primi    i primi dispari fino almeno alla radice di {@code 2a - 1},
+	 *                 in ordine crescente
+	 */
+	static void setaccia(long[] parole, long primoBit, long da, long a, int[] primi) {
+		long primoNumero = 2 * da + 1;
+		long ultimoNumero = 2 * a - 1;
+		for (int p : primi) {
+			long quadrato = (long) p * p;
+			if (quadrato > ultimoNumero)
+				break;
+			// Primo multiplo dispari di p nella finestra che sia almeno p * p
+			long multiplo = quadrato;
+			if (multiplo < primoNumero) {
+				multiplo = (primoNumero + p - 1) / p * p;
+				if ((multiplo & 1) == 0)
+					multiplo += p;
+			}
+			// Nella tabella il passo tra due multipli dispari di p è p
+			long fine = a - primoBit;
+			if (fine <= Integer.MAX_VALUE - p)
+				// Con indici int il ciclo interno è più veloce
+				for (int j = (int) ((multiplo >>> 1) - primoBit); j < fine; j += p)
+					parole[j >>> 6] |= 1L << j;
+			else
+				for (long j = (multiplo >>> 1) - primoBit; j < fine; j += p)
+					parole[(int) (j >>> 6)] |= 1L << j;
+		}
+	}
+
+	/**
+	 * Restituisce l'indice assoluto del primo bit spento in {@code [i, fine)},
+	 * oppure -1 se non ce ne sono.
+	 *
+	 * @param parole   la tabella
+	 * @param primoBit l'indice assoluto del primo bit della tabella
+	 * @param i        l'indice da cui partire
+	 * @param fine     l'indice successivo all'ultimo significativo
+	 * @return l'indice del primo bit spento oppure -1
+	 */
+	static long prossimoSpento(long[] parole, long primoBit, long i, long fine) {
+		if (i >= fine)
+			return -1;
+		int parola = (int) ((i - primoBit) >>> 6);
+		// Scarto i bit che precedono i nella prima parola
+		long liberi = ~parole[parola] & (-1L << i);
+		while (liberi == 0) {
+			if (++parola == parole.length)
+				return -1;
+			liberi = ~parole[parola];
+		}
+		long trovato = primoBit + ((long) parola << 6) + Long.numberOfTrailingZeros(liberi);
+		return trovato < fine ? trovato : -1;
+	}
+
+	/*
+	 * Compito che setaccia le finestre da primo a ultimo escluso, dividendole a
+	 * metà finché non ne resta una sola.
+	 */
+	@SuppressWarnings("serial")
+	private static final class CompitoSetaccio extends RecursiveAction {
+		private final long[] parole;
+		private final long primoBit;
+		private final long da;
+		private final long a;
+		private final int[] primi;
+		private final long bitPerSegmento;
+		private final long primo;
+		private final long ultimo;
+
+		CompitoSetaccio(long[] parole, long primoBit, long da, long a, int[] primi, long bitPerSegmento,
+				long primo, long ultimo) {
+			this.parole = parole;
+			this.primoBit = primoBit;
+			this.da = da;
+			this.a = a;
+			this.primi = primi;
+			this.bitPerSegmento = bitPerSegmento;
+			this.primo = primo;
+			this.ultimo = ultimo;
+		}
+
+		@Override
+		protected void compute() {
+			if (ultimo - primo == 1) {
+				long inizio = da + primo * bitPerSegmento;
+				setaccia(parole, primoBit, inizio, Math.min(a, inizio + bitPerSegmento), primi);
+				return;
+			}
+			long mezzo = (primo + ultimo) >>> 1;
+			invokeAll(new CompitoSetaccio(parole, primoBit, da, a, primi, bitPerSegmento, primo, mezzo),
+					new CompitoSetaccio(parole, primoBit, da, a, primi, bitPerSegmento, mezzo, ultimo));
+		}
+	}
+}
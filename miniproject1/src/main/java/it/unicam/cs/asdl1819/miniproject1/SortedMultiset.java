@@ -0,0 +1,627 @@
+package it.unicam.cs.asdl1819.miniproject1;
+
+import java.util.AbstractMap;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.function.BiConsumer;
+
+/**
+ * Un multiset ordinato memorizzato in un albero AVL: ogni nodo contiene un
+ * elemento distinto con il suo conteggio e la somma dei conteggi del suo
+ * sottoalbero. Le operazioni su un singolo elemento costano
+ * {@code O(log d)}, con {@code d} numero di elementi distinti, e grazie alle
+ * somme dei sottoalberi costano {@code O(log d)} anche le interrogazioni
+ * sull'ordine: quante occorrenze cadono in un intervallo, prima o dopo un
+ * elemento, e quale elemento occupa una certa posizione nella sequenza
+ * ordinata delle occorrenze.
+ *
+ * Gli elementi vengono confrontati con il loro ordinamento naturale, che deve
+ * essere coerente con {@code equals}. L'iterazione, {@link #elementSet()} e
+ * {@link #entryIterator()} presentano gli elementi in ordine crescente.
+ *
+ * Come in {@link HashMultiset} il numero totale di occorrenze e il codice hash
+ * vengono aggiornati a ogni modifica.
+ *
+ * @author Alex Citeroni
+ *
+ * @param <E> il tipo degli elementi del multiset
+ */
+public class SortedMultiset<E extends Comparable<E>> implements Multiset<E> {
+	private Nodo<E> radice;
+	// Numero di elementi distinti
+	private int distinti;
+	// Somma di element.hashCode() ^ count sugli elementi distinti
+	private int hash;
+	// Conteggio dell'elemento prima dell'ultima modifica dell'albero
+	private int precedente;
+
+	/**
+	 * Crea un multiset vuoto.
+	 */
+	public SortedMultiset() {
+		this.radice = null;
+	}
+
+	/**
+	 * Restituisce il numero totale di occorrenze in questo multiset. Se il numero
+	 * supera {@code Integer.MAX_VALUE} viene restituito
+	 * {@code Integer.MAX_VALUE}.
+	 *
+	 * @return il numero totale di occorrenze in questo multiset
+	 */
+	public int size() {
+		return (int) Math.min(somma(radice), Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Restituisce il numero di occorrenze di un elemento in questo multiset. Un
+	 * oggetto che non è confrontabile con gli elementi del multiset ha zero
+	 * occorrenze.
+	 *
+	 * @param element l'elemento da contare
+	 * @return il numero di occorrenze dell'elemento, possibilmente zero
+	 * @throws NullPointerException se l'elemento è nullo
+	 */
+	public int count(Object element) {
+		Nodo<E> n = cerca(element);
+		return n == null ? 0 : n.conteggio;
+	}
+
+	/**
+	 * Aggiunge un numero di occorrenze di un elemento a questo multiset.
+	 *
+	 * @param element     l'elemento da aggiungere
+	 * @param occurrences il numero di occorrenze da aggiungere, possibilmente zero
+	 * @return il conteggio dell'elemento prima dell'operazione
+	 * @throws IllegalArgumentException se {@code occurrences} è negativo o se
+	 *                                  l'elemento avrebbe più di
+	 *                                  {@code Integer.MAX_VALUE} occorrenze
+	 * @throws NullPointerException     se l'elemento è nullo
+	 */
+	public int add(E element, int occurrences) {
+		if (element == null)
+			throw new NullPointerException();
+		if (occurrences < 0)
+			throw new IllegalArgumentException();
+		if (occurrences == 0)
+			return count(element);
+		radice = aggiungi(radice, element, occurrences);
+		aggiorna(element, precedente, precedente + occurrences);
+		return precedente;
+	}
+
+	/**
+	 * Aggiunge una singola occorrenza di un elemento a questo multiset.
+	 *
+	 * @param element l'elemento da aggiungere
+	 * @throws NullPointerException     se l'elemento è nullo
+	 * @throws IllegalArgumentException se l'elemento ha già
+	 *                                  {@code Integer.MAX_VALUE} occorrenze
+	 */
+	public void add(E element) {
+		add(element, 1);
+	}
+
+	/**
+	 * Rimuove un numero di occorrenze di un elemento da questo multiset. Se le
+	 * occorrenze sono meno di quelle richieste vengono rimosse tutte.
+	 *
+	 * @param element     l'elemento da rimuovere
+	 * @param occurrences il numero di occorrenze da rimuovere, possibilmente zero
+	 * @return il conteggio dell'elemento prima dell'operazione
+	 * @throws IllegalArgumentException se {@code occurrences} è negativo
+	 * @throws NullPointerException     se l'elemento è nullo
+	 */
+	public int remove(Object element, int occurrences) {
+		if (element == null)
+			throw new NullPointerException();
+		if (occurrences < 0)
+			throw new IllegalArgumentException();
+		Nodo<E> n = cerca(element);
+		if (n == null)
+			return 0;
+		if (occurrences == 0)
+			return n.conteggio;
+		radice = togli(radice, n.elemento, occurrences);
+		aggiorna(n.elemento, precedente, Math.max(0, precedente - occurrences));
+		return precedente;
+	}
+
+	/**
+	 * Rimuove una singola occorrenza di un elemento da questo multiset, se
+	 * presente.
+	 *
+	 * @param element l'elemento da rimuovere
+	 * @return true se un'occorrenza è stata trovata e rimossa
+	 * @throws NullPointerException se l'elemento è nullo
+	 */
+	public boolean remove(Object element) {
+		return remove(element, 1) > 0;
+	}
+
+	/**
+	 * Aggiunge o rimuove le occorrenze necessarie perché un elemento abbia il
+	 * conteggio richiesto.
+	 *
+	 * @param element     l'elemento
+	 * @param occurrences il conteggio richiesto
+	 * @return il conteggio dell'elemento prima dell'operazione
+	 * @throws IllegalArgumentException se il conteggio è negativo
+	 * @throws NullPointerException     se l'elemento è nullo
+	 */
+	public int setCount(E element, int occurrences) {
+		if (element == null)
+			throw new NullPointerException();
+		if (occurrences < 0)
+			throw new IllegalArgumentException();
+		int prevCount = count(element);
+		if (occurrences > prevCount)
+			add(element, occurrences - prevCount);
+		else if (occurrences < prevCount)
+			remove(element, prevCount - occurrences);
+		return prevCount;
+	}
+
+	/**
+	 * Restituisce un nuovo insieme ordinato con gli elementi distinti di questo
+	 * multiset.
+	 *
+	 * @return l'insieme ordinato degli elementi distinti
+	 */
+	public SortedSet<E> elementSet() {
+		SortedSet<E> risultato = new TreeSet<E>();
+		for (Iterator<Nodo<E>> it = new InOrdine(); it.hasNext();)
+			risultato.add(it.next().elemento);
+		return risultato;
+	}
+
+	/**
+	 * Restituisce un iteratore che presenta gli elementi in ordine crescente, con
+	 * le occorrenze di ogni elemento una dopo l'altra.
+	 *
+	 * @return un iteratore per questo multiset
+	 */
+	public Iterator<E> iterator() {
+		final InOrdine nodi = new InOrdine();
+		return new Iterator<E>() {
+			private Nodo<E> corrente;
+			private int rimanenti = 0;
+
+			@Override
+			public boolean hasNext() {
+				return rimanenti > 0 || nodi.hasNext();
+			}
+
+			@Override
+			public E next() {
+				if (rimanenti == 0) {
+					corrente = nodi.next();
+					rimanenti = corrente.conteggio;
+				}
+				rimanenti--;
+				return corrente.elemento;
+			}
+		};
+	}
+
+	/**
+	 * Restituisce un iteratore sugli elementi distinti in ordine crescente, ognuno
+	 * con il suo conteggio.
+	 *
+	 * @return un iteratore sulle coppie (elemento, conteggio)
+	 */
+	@Override
+	public Iterator<Map.Entry<E, Integer>> entryIterator() {
+		final InOrdine nodi = new InOrdine();
+		return new Iterator<Map.Entry<E, Integer>>() {
+			@Override
+			public boolean hasNext() {
+				return nodi.hasNext();
+			}
+
+			@Override
+			public Map.Entry<E, Integer> next() {
+				return voce(nodi.next());
+			}
+		};
+	}
+
+	/**
+	 * Esegue un'operazione su ogni elemento distinto, in ordine crescente, con il
+	 * suo conteggio.
+	 *
+	 * @param action l'operazione da eseguire
+	 * @throws NullPointerException se l'operazione è nulla
+	 */
+	@Override
+	public void forEachEntry(BiConsumer<? super E, ? super Integer> action) {
+		if (action == null)
+			throw new NullPointerException();
+		for (Iterator<Nodo<E>> it = new InOrdine(); it.hasNext();) {
+			Nodo<E> n = it.next();
+			action.accept(n.elemento, n.conteggio);
+		}
+	}
+
+	/**
+	 * Controlla se questo multiset contiene almeno un'occorrenza di un elemento.
+	 *
+	 * @param element l'elemento da cercare
+	 * @return true se l'elemento è contenuto in questo multiset
+	 * @throws NullPointerException se l'elemento è nullo
+	 */
+	public boolean contains(Object element) {
+		return cerca(element) != null;
+	}
+
+	/**
+	 * Rimuove tutti gli elementi da questo multiset.
+	 */
+	public void clear() {
+		radice = null;
+		distinti = 0;
+		hash = 0;
+	}
+
+	/**
+	 * Controlla se questo multiset è vuoto.
+	 *
+	 * @return true se questo multiset non contiene elementi
+	 */
+	public boolean isEmpty() {
+		return radice == null;
+	}
+
+	/**
+	 * Conta le occorrenze degli elementi compresi tra due estremi, entrambi
+	 * inclusi.
+	 *
+	 * @param lo l'estremo inferiore
+	 * @param hi l'estremo superiore
+	 * @return il numero di occorrenze degli elementi {@code e} con
+	 *         {@code lo <= e <= hi}, zero se {@code lo > hi}
+	 * @throws NullPointerException se uno degli estremi è nullo
+	 */
+	public long countInRange(E lo, E hi) {
+		if (lo.compareTo(hi) > 0)
+			return 0;
+		return headCount(hi, true) - headCount(lo, false);
+	}
+
+	/**
+	 * Conta le occorrenze degli elementi minori di un elemento dato, o minori o
+	 * uguali se {@code inclusive} è true.
+	 *
+	 * @param toElement l'estremo superiore
+	 * @param inclusive se le occorrenze di {@code toElement} vanno contate
+	 * @return il numero di occorrenze degli elementi che precedono l'estremo
+	 * @throws NullPointerException se l'estremo è nullo
+	 */
+	public long headCount(E toElement, boolean inclusive) {
+		if (toElement == null)
+			throw new NullPointerException();
+		long conteggio = 0;
+		Nodo<E> n = radice;
+		while (n != null) {
+			int c = toElement.compareTo(n.elemento);
+			if (c < 0)
+				n = n.sinistro;
+			else if (c > 0) {
+				conteggio += somma(n.sinistro) + n.conteggio;
+				n = n.destro;
+			} else
+				return conteggio + somma(n.sinistro) + (inclusive ? n.conteggio : 0);
+		}
+		return conteggio;
+	}
+
+	/**
+	 * Conta le occorrenze degli elementi maggiori di un elemento dato, o maggiori
+	 * o uguali se {@code inclusive} è true.
+	 *
+	 * @param fromElement l'estremo inferiore
+	 * @param inclusive   se le occorrenze di {@code fromElement} vanno contate
+	 * @return il numero di occorrenze degli elementi che seguono l'estremo
+	 * @throws NullPointerException se l'estremo è nullo
+	 */
+	public long tailCount(E fromElement, boolean inclusive) {
+		return somma(radice) - headCount(fromElement, !inclusive);
+	}
+
+	/**
+	 * Restituisce l'elemento più piccolo con il suo conteggio.
+	 *
+	 * @return la coppia (elemento, conteggio) dell'elemento più piccolo, o null se
+	 *         il multiset è vuoto
+	 */
+	public Map.Entry<E, Integer> firstEntry() {
+		Nodo<E> n = radice;
+		if (n == null)
+			return null;
+		while (n.sinistro != null)
+			n = n.sinistro;
+		return voce(n);
+	}
+
+	/**
+	 * Restituisce l'elemento più grande con il suo conteggio.
+	 *
+	 * @return la coppia (elemento, conteggio) dell'elemento più grande, o null se
+	 *         il multiset è vuoto
+	 */
+	public Map.Entry<E, Integer> lastEntry() {
+		Nodo<E> n = radice;
+		if (n == null)
+			return null;
+		while (n.destro != null)
+			n = n.destro;
+		return voce(n);
+	}
+
+	/**
+	 * Restituisce l'occorrenza di posizione {@code k} nella sequenza ordinata di
+	 * tutte le occorrenze, cioè l'elemento che l'iteratore restituirebbe dopo
+	 * averne restituiti {@code k}.
+	 *
+	 * @param k la posizione, a partire da 0
+	 * @return l'elemento dell'occorrenza di posizione {@code k}
+	 * @throws IndexOutOfBoundsException se {@code k} è negativo o non minore del
+	 *                                   numero totale di occorrenze
+	 */
+	public E select(long k) {
+		if (k < 0 || k >= somma(radice))
+			throw new IndexOutOfBoundsException();
+		Nodo<E> n = radice;
+		while (true) {
+			long sinistra = somma(n.sinistro);
+			if (k < sinistra)
+				n = n.sinistro;
+			else if (k < sinistra + n.conteggio)
+				return n.elemento;
+			else {
+				k -= sinistra + n.conteggio;
+				n = n.destro;
+			}
+		}
+	}
+
+	/**
+	 * Restituisce un codice hash che non dipende dall'ordine degli elementi: la
+	 * somma di {@code element.hashCode() ^ count} su tutti gli elementi distinti.
+	 *
+	 * @return il codice hash di questo multiset
+	 */
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+
+	/**
+	 * Confronta questo multiset con un oggetto. Restituisce true se l'oggetto è
+	 * un {@link Multiset} con gli stessi elementi e gli stessi conteggi.
+	 *
+	 * @param obj l'oggetto da confrontare
+	 * @return true se l'oggetto è un multiset uguale a questo
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!(obj instanceof Multiset))
+			return false;
+		Multiset<?> other = (Multiset<?>) obj;
+		// Due multiset con dimensioni diverse, o della stessa classe con codici
+		// hash diversi, sono certamente diversi
+		if (other.size() != size() || (other.getClass() == getClass() && other.hashCode() != hash))
+			return false;
+		if (other.elementSet().size() != distinti)
+			return false;
+		for (Iterator<Nodo<E>> it = new InOrdine(); it.hasNext();) {
+			Nodo<E> n = it.next();
+			if (other.count(n.elemento) != n.conteggio)
+				return false;
+		}
+		return true;
+	}
+
+	/*
+	 * Restituisce l'altezza dell'albero. Serve per verificare il bilanciamento
+	 * nei test.
+	 */
+	int altezza() {
+		return altezza(radice);
+	}
+
+	// Cerca il nodo di un elemento, o null se l'elemento non c'è
+	@SuppressWarnings("unchecked")
+	private Nodo<E> cerca(Object element) {
+		if (element == null)
+			throw new NullPointerException();
+		Nodo<E> n = radice;
+		try {
+			while (n != null) {
+				int c = ((Comparable<Object>) element).compareTo(n.elemento);
+				if (c == 0)
+					return n;
+				n = c < 0 ? n.sinistro : n.destro;
+			}
+		} catch (ClassCastException e) {
+			// Un oggetto non confrontabile non può essere nel multiset
+		}
+		return null;
+	}
+
+	// Aggiunge le occorrenze nel sottoalbero e ne restituisce la nuova radice
+	private Nodo<E> aggiungi(Nodo<E> n, E element, int occurrences) {
+		if (n == null) {
+			precedente = 0;
+			distinti++;
+			return new Nodo<E>(element, occurrences);
+		}
+		int c = element.compareTo(n.elemento);
+		if (c < 0)
+			n.sinistro = aggiungi(n.sinistro, element, occurrences);
+		else if (c > 0)
+			n.destro = aggiungi(n.destro, element, occurrences);
+		else {
+			// Nessun nodo è stato ancora modificato, quindi posso fermarmi qui
+			if ((long) n.conteggio + occurrences > Integer.MAX_VALUE)
+				throw new IllegalArgumentException();
+			precedente = n.conteggio;
+			n.conteggio += occurrences;
+		}
+		return bilancia(n);
+	}
+
+	// Toglie le occorrenze di un elemento presente e restituisce la nuova radice
+	private Nodo<E> togli(Nodo<E> n, E element, int occurrences) {
+		int c = element.compareTo(n.elemento);
+		if (c < 0)
+			n.sinistro = togli(n.sinistro, element, occurrences);
+		else if (c > 0)
+			n.destro = togli(n.destro, element, occurrences);
+		else {
+			precedente = n.conteggio;
+			if (occurrences < n.conteggio)
+				n.conteggio -= occurrences;
+			else {
+				distinti--;
+				if (n.sinistro == null)
+					return n.destro;
+				if (n.destro == null)
+					return n.sinistro;
+				// Sostituisco il nodo con il minimo del sottoalbero destro
+				Nodo<E> minimo = n.destro;
+				while (minimo.sinistro != null)
+					minimo = minimo.sinistro;
+				minimo.destro = togliMinimo(n.destro);
+				minimo.sinistro = n.sinistro;
+				n = minimo;
+			}
+		}
+		return bilancia(n);
+	}
+
+	private Nodo<E> togliMinimo(Nodo<E> n) {
+		if (n.sinistro == null)
+			return n.destro;
+		n.sinistro = togliMinimo(n.sinistro);
+		return bilancia(n);
+	}
+
+	// Ricalcola altezza e somma del nodo e lo ruota se i figli sono sbilanciati
+	private Nodo<E> bilancia(Nodo<E> n) {
+		int fattore = altezza(n.sinistro) - altezza(n.destro);
+		if (fattore > 1) {
+			if (altezza(n.sinistro.sinistro) < altezza(n.sinistro.destro))
+				n.sinistro = ruotaSinistra(n.sinistro);
+			return ruotaDestra(n);
+		}
+		if (fattore < -1) {
+			if (altezza(n.destro.destro) < altezza(n.destro.sinistro))
+				n.destro = ruotaDestra(n.destro);
+			return ruotaSinistra(n);
+		}
+		ricalcola(n);
+		return n;
+	}
+
+	private Nodo<E> ruotaDestra(Nodo<E> n) {
+		Nodo<E> s = n.sinistro;
+		n.sinistro = s.destro;
+		s.destro = n;
+		ricalcola(n);
+		ricalcola(s);
+		return s;
+	}
+
+	private Nodo<E> ruotaSinistra(Nodo<E> n) {
+		Nodo<E> d = n.destro;
+		n.destro = d.sinistro;
+		d.sinistro = n;
+		ricalcola(n);
+		ricalcola(d);
+		return d;
+	}
+
+	private void ricalcola(Nodo<E> n) {
+		n.altezza = Math.max(altezza(n.sinistro), altezza(n.destro)) + 1;
+		n.somma = somma(n.sinistro) + n.conteggio + somma(n.destro);
+	}
+
+	private void aggiorna(Object element, int prima, int dopo) {
+		int h = element.hashCode();
+		if (prima > 0)
+			hash -= h ^ prima;
+		if (dopo > 0)
+			hash += h ^ dopo;
+	}
+
+	private static int altezza(Nodo<?> n) {
+		return n == null ? 0 : n.altezza;
+	}
+
+	private static long somma(Nodo<?> n) {
+		return n == null ? 0 : n.somma;
+	}
+
+	private static <E> Map.Entry<E, Integer> voce(Nodo<E> n) {
+		return new AbstractMap.SimpleImmutableEntry<E, Integer>(n.elemento, n.conteggio);
+	}
+
+	/*
+	 * Un elemento distinto con il suo conteggio. La somma è il numero di
+	 * occorrenze del sottoalbero, compreso il nodo stesso.
+	 */
+	private static final class Nodo<E> {
+		private final E elemento;
+		private int conteggio;
+		private long somma;
+		private int altezza;
+		private Nodo<E> sinistro;
+		private Nodo<E> destro;
+
+		Nodo(E elemento, int conteggio) {
+			this.elemento = elemento;
+			this.conteggio = conteggio;
+			this.somma = conteggio;
+			this.altezza = 1;
+		}
+	}
+
+	/*
+	 * Visita simmetrica dei nodi con una pila esplicita: la pila contiene il
+	 * cammino dei nodi non ancora restituiti a sinistra del prossimo.
+	 */
+	private final class InOrdine implements Iterator<Nodo<E>> {
+		private final Deque<Nodo<E>> pila = new ArrayDeque<Nodo<E>>();
+
+		InOrdine() {
+			scendi(radice);
+		}
+
+		@Override
+		public boolean hasNext() {
+			return !pila.isEmpty();
+		}
+
+		@Override
+		public Nodo<E> next() {
+			if (pila.isEmpty())
+				throw new NoSuchElementException();
+			Nodo<E> n = pila.pop();
+			scendi(n.destro);
+			return n;
+		}
+
+		private void scendi(Nodo<E> n) {
+			for (; n != null; n = n.sinistro)
+				pila.push(n);
+		}
+	}
+}
@@ -0,0 +1,88 @@
+package it.unicam.cs.asdl1819.miniproject1;
+
+/**
+ * Tabella del minimo fattore primo di ogni numero fino a un limite, calcolata
+ * con il crivello lineare: ogni numero composto viene segnato una sola volta,
+ * dal suo minimo fattore primo, quindi la costruzione costa {@code O(n)}.
+ *
+ * Il minimo fattore primo di un numero composto non supera la sua radice, che
+ * per un {@code int} è minore di 65536: per questo la tabella usa un
+ * {@code char} per numero. I numeri pari non vengono memorizzati e per i
+ * numeri primi la tabella contiene 0, quindi l'occupazione è di circa
+ * {@code n} byte.
+ *
+ * @author Alex Citeroni
+ *
+ */
+public class TabellaFattoriMinimi {
+	private int limite;
+	// fattori[i] è il minimo fattore primo del numero dispari 2i + 1, oppure 0 se
+	// il numero è primo
+	private char[] fattori;
+
+	/**
+	 * Costruisce la tabella dei minimi fattori primi fino a un limite.
+	 *
+	 * @param limite il numero più grande della tabella
+	 *
+	 * @throws IllegalArgumentException se il limite è minore di {@code 2}
+	 */
+	public TabellaFattoriMinimi(int limite) {
+		if (limite < 2)
+			throw new IllegalArgumentException();
+		this.limite = limite;
+		riempimento(limite);
+	}
+
+	/**
+	 * Restituisce il numero più grande di questa tabella.
+	 *
+	 * @return il limite di questa tabella
+	 */
+	public int getLimite() {
+		return limite;
+	}
+
+	/**
+	 * Restituisce il minimo fattore primo di un numero.
+	 *
+	 * @param n il numero
+	 * @return il minimo fattore primo di {@code n}, che è {@code n} stesso se
+	 *         {@code n} è primo
+	 * @throws IllegalArgumentException se {@code n} è minore di 2 o maggiore del
+	 *                                  limite di questa tabella
+	 */
+	public int fattoreMinimo(int n) {
+		if (n < 2 || n > limite)
+			throw new IllegalArgumentException();
+		if (n % 2 == 0)
+			return 2;
+		int fattore = fattori[n >>> 1];
+		return fattore == 0 ? n : fattore;
+	}
+
+	// Creo un metodo per riempire la tabella con il crivello lineare
+	private void riempimento(int limite) {
+		fattori = new char[(limite >>> 1) + 1];
+		// Servono solo i primi dispari fino alla radice del limite
+		int radice = (int) Setaccio.radice(limite);
+		int[] primi = new int[Math.max(radice, 1)];
+		int quanti = 0;
+		for (int i = 3; i <= limite / 3; i += 2) {
+			int minimo = fattori[i >>> 1];
+			if (minimo == 0) {
+				minimo = i;
+				if (i <= radice)
+					primi[quanti++] = i;
+			}
+			// Ogni multiplo p * i con p primo non maggiore del minimo fattore di i ha
+			// p come minimo fattore, e viene segnato solo da questa coppia
+			for (int k = 0; k < quanti && primi[k] <= minimo; k++) {
+				long multiplo = (long) primi[k] * i;
+				if (multiplo > limite)
+					break;
+				fattori[(int) (multiplo >>> 1)] = (char) primi[k];
+			}
+		}
+	}
+}
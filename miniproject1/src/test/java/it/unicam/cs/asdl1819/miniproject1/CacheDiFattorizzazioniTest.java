@@ -0,0 +1,97 @@
+package it.unicam.cs.asdl1819.miniproject1;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class CacheDiFattorizzazioniTest {
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testCacheDiFattorizzazioniExceptions() {
+        new CacheDiFattorizzazioni(0);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testCacheDiFattorizzazioniTroppoGrande() {
+        new CacheDiFattorizzazioni(1 << 29);
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testCacheDiFattorizzazioniNull() {
+        new CacheDiFattorizzazioni(null, 10);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testGetFactorsExceptions() {
+        new CacheDiFattorizzazioni(10).getFactors(0);
+    }
+
+    @Test
+    public void testContatori() {
+        CacheDiFattorizzazioni c = new CacheDiFattorizzazioni(2);
+        Fattorizzazione f = c.getFactors(12);
+        assertEquals(true, c.getFactors(12) == f);
+        c.getFactors(15);
+        assertEquals(2, c.size());
+        assertEquals(1, c.getSuccessi());
+        assertEquals(2, c.getFallimenti());
+        assertEquals(0, c.getEspulsioni());
+        // 12 è stato riferito dopo l'inserimento, quindi viene espulso 15
+        c.getFactors(21);
+        assertEquals(2, c.size());
+        assertEquals(1, c.getEspulsioni());
+        assertEquals(true, c.getFactors(12) == f);
+        assertEquals(2, c.getSuccessi());
+        c.getFactors(15);
+        assertEquals(4, c.getFallimenti());
+        c.clear();
+        assertEquals(0, c.size());
+        assertEquals(4, c.getFallimenti());
+    }
+
+    @Test
+    public void testSameAsFactoriser() {
+        Factoriser g = new Factoriser();
+        CacheDiFattorizzazioni c = new CacheDiFattorizzazioni(g, 1000);
+        Random r = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            long n = 1 + r.nextInt(3000);
+            assertEquals(true, c.getFactors(n).equals(g.getFattorizzazione(n)));
+            assertEquals(true, c.size() <= 1000);
+        }
+        assertEquals(100000, c.getSuccessi() + c.getFallimenti());
+        assertEquals(c.getFallimenti() - 1000, c.getEspulsioni());
+        assertEquals(true, c.getSuccessi() > 0);
+    }
+
+    @Test
+    public void testThread() throws InterruptedException {
+        final Factoriser g = new Factoriser();
+        final CacheDiFattorizzazioni c = new CacheDiFattorizzazioni(g, 500);
+        final boolean[] errore = new boolean[1];
+        Thread[] thread = new Thread[4];
+        for (int t = 0; t < thread.length; t++) {
+            final int seme = t;
+            thread[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    Random r = new Random(seme);
+                    for (int i = 0; i < 50000; i++) {
+                        long n = 1 + r.nextInt(2000);
+                        if (!c.getFactors(n).equals(g.getFattorizzazione(n)))
+                            errore[0] = true;
+                    }
+                }
+            });
+            thread[t].start();
+        }
+        for (Thread t : thread)
+            t.join();
+        assertEquals(false, errore[0]);
+        assertEquals(200000, c.getSuccessi() + c.getFallimenti());
+        assertEquals(500, c.size());
+    }
+
+}
@@ -0,0 +1,198 @@
+package it.unicam.cs.asdl1819.miniproject1;
+
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+public class ConcurrentMultisetTest {
+
+    @Test
+    public void testConcurrentMultiset() {
+        ConcurrentMultiset<Integer> m = new ConcurrentMultiset<Integer>();
+        assertEquals(true, m.isEmpty());
+        assertEquals(0, m.size());
+        assertEquals(false, m.iterator().hasNext());
+    }
+
+    @Test
+    public void testAddCountRemove() {
+        ConcurrentMultiset<Integer> m = new ConcurrentMultiset<Integer>();
+        assertEquals(0, m.add(3, 2));
+        m.add(2);
+        assertEquals(2, m.add(3, 0));
+        assertEquals(2, m.count(3));
+        assertEquals(1, m.count(2));
+        assertEquals(0, m.count(4));
+        assertEquals(3, m.size());
+        assertEquals(2, m.remove(3, 5));
+        assertEquals(0, m.count(3));
+        assertEquals(false, m.contains(3));
+        assertEquals(true, m.remove(2));
+        assertEquals(false, m.remove(2));
+        assertEquals(true, m.isEmpty());
+        // Un elemento rimosso può essere aggiunto di nuovo
+        assertEquals(0, m.add(3, 4));
+        assertEquals(4, m.count(3));
+        assertEquals(4, m.size());
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testAddNull() {
+        new ConcurrentMultiset<Integer>().add(null);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testAddNegative() {
+        new ConcurrentMultiset<Integer>().add(1, -1);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testAddOverflow() {
+        ConcurrentMultiset<Integer> m = new ConcurrentMultiset<Integer>();
+        m.add(1, Integer.MAX_VALUE - 1);
+        m.add(1, 2);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testRemoveNegative() {
+        new ConcurrentMultiset<Integer>().remove(1, -1);
+    }
+
+    @Test
+    public void testSetCount() {
+        ConcurrentMultiset<Integer> m = new ConcurrentMultiset<Integer>();
+        assertEquals(0, m.setCount(5, 0));
+        assertEquals(0, m.setCount(5, 3));
+        assertEquals(3, m.setCount(5, 7));
+        assertEquals(7, m.size());
+        assertEquals(7, m.setCount(5, 0));
+        assertEquals(0, m.size());
+        assertEquals(false, m.contains(5));
+        assertEquals(0, m.setCount(5, 1));
+        assertEquals(1, m.size());
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testSetCountNegative() {
+        new ConcurrentMultiset<Integer>().setCount(1, -1);
+    }
+
+    @Test
+    public void testElementSetIterator() {
+        ConcurrentMultiset<String> m = new ConcurrentMultiset<String>();
+        m.add("a", 2);
+        m.add("b", 3);
+        Set<String> attesi = new HashSet<String>();
+        attesi.add("a");
+        attesi.add("b");
+        assertEquals(attesi, m.elementSet());
+        int a = 0;
+        int b = 0;
+        for (Iterator<String> it = m.iterator(); it.hasNext();)
+            if (it.next().equals("a"))
+                a++;
+            else
+                b++;
+        assertEquals(2, a);
+        assertEquals(3, b);
+        int distinti = 0;
+        for (Iterator<Map.Entry<String, Integer>> it = m.entryIterator(); it.hasNext();) {
+            Map.Entry<String, Integer> entry = it.next();
+            assertEquals((int) entry.getValue(), m.count(entry.getKey()));
+            distinti++;
+        }
+        assertEquals(2, distinti);
+    }
+
+    @Test(expected=NoSuchElementException.class)
+    public void testIteratorExceptions() {
+        new ConcurrentMultiset<Integer>().iterator().next();
+    }
+
+    @Test
+    public void testEqualsHashCode() {
+        ConcurrentMultiset<Integer> m = new ConcurrentMultiset<Integer>();
+        MyMultiset<Integer> n = new MyMultiset<Integer>();
+        HashMultiset<Integer> h = new HashMultiset<Integer>();
+        for (int i = 0; i < 50; i++) {
+            m.add(i % 7, i % 3 + 1);
+            n.add(i % 7, i % 3 + 1);
+            h.add(i % 7, i % 3 + 1);
+        }
+        assertEquals(true, m.equals(n));
+        assertEquals(true, n.equals(m));
+        assertEquals(true, m.equals(h));
+        assertEquals(n.hashCode(), m.hashCode());
+        m.remove(0);
+        assertEquals(false, m.equals(n));
+        assertEquals(false, n.equals(m));
+        m.clear();
+        assertEquals(true, m.isEmpty());
+        assertEquals(true, m.equals(new MyMultiset<Integer>()));
+    }
+
+    @Test
+    public void testThreadConcorrenti() throws InterruptedException {
+        final ConcurrentMultiset<Integer> m = new ConcurrentMultiset<Integer>();
+        final int operazioni = 20000;
+        Thread[] thread = new Thread[8];
+        for (int t = 0; t < thread.length; t++) {
+            final int seme = t;
+            thread[t] = new Thread(new Runnable() {
+                public void run() {
+                    // Ogni thread aggiunge due occorrenze e ne rimuove una,
+                    // anche di elementi condivisi con gli altri thread
+                    for (int i = 0; i < operazioni; i++) {
+                        int e = (i * 31 + seme) % 16;
+                        m.add(e, 2);
+                        m.remove(e);
+                    }
+                }
+            });
+        }
+        for (Thread t : thread)
+            t.start();
+        for (Thread t : thread)
+            t.join();
+        assertEquals(thread.length * operazioni, m.size());
+        int totale = 0;
+        for (int e : m.elementSet())
+            totale += m.count(e);
+        assertEquals(m.size(), totale);
+    }
+
+    @Test
+    public void testSetCountAtomico() throws InterruptedException {
+        final ConcurrentMultiset<Integer> m = new ConcurrentMultiset<Integer>();
+        final AtomicLong somma = new AtomicLong();
+        final int operazioni = 20000;
+        Thread[] thread = new Thread[8];
+        for (int t = 0; t < thread.length; t++) {
+            final int seme = t;
+            thread[t] = new Thread(new Runnable() {
+                public void run() {
+                    // Sommando i valori scritti meno quelli letti rimane solo
+                    // l'ultimo valore scritto, se nessuna scrittura va persa
+                    for (int i = 0; i < operazioni; i++) {
+                        int nuovo = (i + seme) % 5;
+                        int vecchio = m.setCount(1, nuovo);
+                        somma.addAndGet(nuovo - vecchio);
+                    }
+                }
+            });
+        }
+        for (Thread t : thread)
+            t.start();
+        for (Thread t : thread)
+            t.join();
+        assertEquals(somma.get(), m.count(1));
+        assertEquals(m.count(1), m.size());
+    }
+}
@@ -0,0 +1,41 @@
+package it.unicam.cs.asdl1819.miniproject1;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class ContatorePrimiTest {
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testPiNegative() {
+        ContatorePrimi.pi(-1);
+    }
+
+    @Test
+    public void testPiSmall() {
+        assertEquals(0, ContatorePrimi.pi(0));
+        assertEquals(0, ContatorePrimi.pi(1));
+        assertEquals(1, ContatorePrimi.pi(2));
+        assertEquals(2, ContatorePrimi.pi(3));
+        assertEquals(2, ContatorePrimi.pi(4));
+        assertEquals(4, ContatorePrimi.pi(8));
+        assertEquals(4, ContatorePrimi.pi(9));
+        assertEquals(25, ContatorePrimi.pi(100));
+    }
+
+    @Test
+    public void testSameAsCrivello() {
+        CrivelloDiEratostene c = new CrivelloDiEratostene(100000);
+        for (int n = 2; n <= 100000; n += 37)
+            assertEquals(c.primeCount(n), ContatorePrimi.pi(n));
+    }
+
+    @Test
+    public void testPiPowersOfTen() {
+        assertEquals(664579, ContatorePrimi.pi(10000000L));
+        assertEquals(50847534, ContatorePrimi.pi(1000000000L));
+        assertEquals(4118054813L, ContatorePrimi.pi(100000000000L));
+        assertEquals(37607912018L, ContatorePrimi.pi(1000000000000L));
+    }
+
+}
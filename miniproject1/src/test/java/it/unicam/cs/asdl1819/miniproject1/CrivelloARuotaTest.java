@@ -0,0 +1,48 @@
+package it.unicam.cs.asdl1819.miniproject1;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class CrivelloARuotaTest {
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testCrivelloARuota() {
+        CrivelloARuota c = new CrivelloARuota(1);
+    }
+
+    @Test
+    public void testNextPrime() {
+        CrivelloARuota c = new CrivelloARuota(7);
+        assertEquals(2,c.nextPrime(1));
+        assertEquals(3,c.nextPrime(2));
+        assertEquals(5,c.nextPrime(3));
+        assertEquals(7,c.nextPrime(6));
+        assertEquals(-1,c.nextPrime(7));
+    }
+
+    @Test
+    public void testNextPrimeSmallCapacity() {
+        CrivelloARuota c = new CrivelloARuota(4);
+        assertEquals(3,c.nextPrime(2));
+        assertEquals(-1,c.nextPrime(3));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testIsPrimeExceptions() {
+        CrivelloARuota c = new CrivelloARuota(32);
+        c.isPrime(33);
+    }
+
+    @Test
+    public void testSameAsCrivello() {
+        CrivelloDiEratostene c1 = new CrivelloDiEratostene(1000003);
+        CrivelloARuota c2 = new CrivelloARuota(1000003);
+        assertEquals(c1.getPrimes(), c2.getPrimes());
+        for (int n = 1; n <= 1000003; n++)
+            assertEquals(c1.isPrime(n), c2.isPrime(n));
+        for (int n = 1; n <= 1000003; n += 97)
+            assertEquals(c1.nextPrime(n), c2.nextPrime(n));
+    }
+
+}
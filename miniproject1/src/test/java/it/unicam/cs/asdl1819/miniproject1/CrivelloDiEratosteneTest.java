@@ -2,6 +2,9 @@ package it.unicam.cs.asdl1819.miniproject1;
 
 import static org.junit.Assert.*;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.PrimitiveIterator;
 import java.util.SortedSet;
 import java.util.TreeSet;
 
@@ -80,4 +83,202 @@ public class CrivelloDiEratosteneTest {
         assertEquals(true, c.isPrime(33));
     }
     
+    @Test
+    public void testNextPrimeAfterLastPrime() {
+        CrivelloDiEratostene c = new CrivelloDiEratostene(32);
+        assertEquals(31,c.nextPrime(30));
+        assertEquals(-1,c.nextPrime(31));
+        assertEquals(-1,c.nextPrime(32));
+    }
+
+    @Test
+    public void testIsPrimeTrialDivision() {
+        CrivelloDiEratostene c = new CrivelloDiEratostene(100000);
+        for (int n = 2; n <= 100000; n++) {
+            boolean primo = true;
+            for (int d = 2; d * d <= n; d++)
+                if (n % d == 0)
+                    primo = false;
+            assertEquals(primo, c.isPrime(n));
+        }
+    }
+
+    @Test
+    public void testGetPrimesSize() {
+        CrivelloDiEratostene c = new CrivelloDiEratostene(1000000);
+        assertEquals(78498, c.getPrimes().size());
+        assertEquals(999983, (int) c.getPrimes().last());
+    }
+    
+    @Test
+    public void testSegmentSizeDoesNotChangeResult() {
+        SortedSet<Integer> p = new CrivelloDiEratostene(300000).getPrimes();
+        assertEquals(p, new CrivelloDiEratostene(300000, 8).getPrimes());
+        assertEquals(p, new CrivelloDiEratostene(300000, 1024).getPrimes());
+        assertEquals(p, new CrivelloDiEratostene(300000, 1 << 20).getPrimes());
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testSegmentSizeNotMultipleOfEight() {
+        CrivelloDiEratostene c = new CrivelloDiEratostene(32, 12);
+    }
+    
+    @Test
+    public void testParallelSameAsSequential() {
+        CrivelloDiEratostene c1 = new CrivelloDiEratostene(5000000, 1024);
+        CrivelloDiEratostene c2 = new CrivelloDiEratostene(5000000, 1024, 4);
+        assertEquals(c1.getPrimes(), c2.getPrimes());
+        assertEquals(c1.nextPrime(4999900), c2.nextPrime(4999900));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testParallelismZero() {
+        CrivelloDiEratostene c = new CrivelloDiEratostene(32, 8, 0);
+    }
+    
+    @Test
+    public void testEnsureCapacity() {
+        CrivelloDiEratostene c = new CrivelloDiEratostene(10);
+        c.ensureCapacity(1000003);
+        assertEquals(1000003, c.getCapacity());
+        assertEquals(new CrivelloDiEratostene(1000003).getPrimes(), c.getPrimes());
+        c.ensureCapacity(500);
+        assertEquals(1000003, c.getCapacity());
+    }
+
+    @Test
+    public void testEnsureCapacityParallel() {
+        CrivelloDiEratostene c = new CrivelloDiEratostene(1000, 8, 3);
+        for (int n = 1100; n <= 200000; n += 12345)
+            c.ensureCapacity(n);
+        assertEquals(new CrivelloDiEratostene(c.getCapacity()).getPrimes(), c.getPrimes());
+    }
+
+    @Test
+    public void testCrescitaAutomatica() {
+        CrivelloDiEratostene c = new CrivelloDiEratostene(7);
+        c.setCrescitaAutomatica(true);
+        assertEquals(11, c.nextPrime(7));
+        assertEquals(true, c.isPrime(101));
+        assertEquals(false, c.isPrime(1000));
+        assertEquals(true, c.getCapacity() >= 1000);
+        assertEquals(1009, c.nextPrime(1000));
+    }
+
+    @Test
+    public void testCrescitaAutomaticaRoundTrip() throws Exception {
+        CrivelloDiEratostene c = new CrivelloDiEratostene(100);
+        c.setCrescitaAutomatica(true);
+        c.isPrime(5000);
+        Path file = Files.createTempFile("crivello", ".bin");
+        file.toFile().deleteOnExit();
+        c.salva(file);
+        assertEquals(c.getPrimes(), new CrivelloMappato(file).getPrimes());
+    }
+    
+    @Test
+    public void testPrimeCount() {
+        CrivelloDiEratostene c = new CrivelloDiEratostene(10000000);
+        assertEquals(0, c.primeCount(1));
+        assertEquals(1, c.primeCount(2));
+        assertEquals(2, c.primeCount(4));
+        assertEquals(25, c.primeCount(100));
+        assertEquals(168, c.primeCount(1000));
+        assertEquals(78498, c.primeCount(1000000));
+        assertEquals(664579, c.primeCount(10000000));
+    }
+
+    @Test
+    public void testPrimeCountEveryNumber() {
+        CrivelloDiEratostene c = new CrivelloDiEratostene(5000);
+        int count = 0;
+        for (int n = 2; n <= 5000; n++) {
+            if (c.isPrime(n))
+                count++;
+            assertEquals(count, c.primeCount(n));
+        }
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testPrimeCountExceptions() {
+        CrivelloDiEratostene c = new CrivelloDiEratostene(32);
+        c.primeCount(33);
+    }
+
+    @Test
+    public void testNthPrime() {
+        CrivelloDiEratostene c = new CrivelloDiEratostene(10000000);
+        assertEquals(2, c.nthPrime(1));
+        assertEquals(3, c.nthPrime(2));
+        assertEquals(29, c.nthPrime(10));
+        assertEquals(7919, c.nthPrime(1000));
+        assertEquals(9999991, c.nthPrime(664579));
+        assertEquals(-1, c.nthPrime(664580));
+        int k = 1;
+        for (int p : new CrivelloDiEratostene(100000).getPrimes())
+            assertEquals(p, c.nthPrime(k++));
+    }
+
+    @Test
+    public void testNthPrimeCrescitaAutomatica() {
+        CrivelloDiEratostene c = new CrivelloDiEratostene(10);
+        c.setCrescitaAutomatica(true);
+        assertEquals(104729, c.nthPrime(10000));
+        assertEquals(10000, c.primeCount(104729));
+    }
+    
+    @Test
+    public void testPrimesFrom() {
+        CrivelloDiEratostene c = new CrivelloDiEratostene(32);
+        PrimitiveIterator.OfInt itr = c.primesFrom(1);
+        assertEquals(2, itr.nextInt());
+        assertEquals(3, itr.nextInt());
+        itr = c.primesFrom(23);
+        assertEquals(23, itr.nextInt());
+        assertEquals(29, itr.nextInt());
+        assertEquals(31, itr.nextInt());
+        assertEquals(false, itr.hasNext());
+        assertEquals(false, c.primesFrom(32).hasNext());
+    }
+
+    @Test
+    public void testPrimes() {
+        CrivelloDiEratostene c = new CrivelloDiEratostene(1000000);
+        SortedSet<Integer> p = c.getPrimes();
+        int[] a = c.primes().toArray();
+        assertEquals(p.size(), a.length);
+        int i = 0;
+        for (int n : p)
+            assertEquals(n, a[i++]);
+    }
+
+    @Test
+    public void testPrimesParallel() {
+        CrivelloDiEratostene c = new CrivelloDiEratostene(3000000);
+        assertEquals(c.primeCount(3000000), c.primes().parallel().count());
+        assertEquals(c.primes().filter(p -> p % 4 == 1).count(),
+                c.primes().parallel().filter(p -> p % 4 == 1).count());
+        int[] a = c.primes().parallel().toArray();
+        for (int k = 1; k <= a.length; k += 1000)
+            assertEquals(c.nthPrime(k), a[k - 1]);
+    }
+    
+    @Test
+    public void testIsPrimeLong() {
+        CrivelloDiEratostene c = new CrivelloDiEratostene(32);
+        assertEquals(true, c.isPrime(1L));
+        assertEquals(true, c.isPrime(31L));
+        assertEquals(false, c.isPrime(33L));
+        assertEquals(true, c.isPrime(1000000007L));
+        assertEquals(true, c.isPrime(9223372036854775783L));
+        assertEquals(false, c.isPrime(9223372036854775807L));
+        assertEquals(32, c.getCapacity());
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testIsPrimeLongExceptions() {
+        CrivelloDiEratostene c = new CrivelloDiEratostene(32);
+        c.isPrime(0L);
+    }
+    
 }
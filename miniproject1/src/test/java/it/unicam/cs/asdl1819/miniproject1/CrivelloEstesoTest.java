@@ -0,0 +1,70 @@
+package it.unicam.cs.asdl1819.miniproject1;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class CrivelloEstesoTest {
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testCrivelloEsteso() {
+        CrivelloEsteso c = new CrivelloEsteso(1);
+    }
+
+    @Test
+    public void testNextPrime() {
+        CrivelloEsteso c = new CrivelloEsteso(7);
+        assertEquals(2,c.nextPrime(1));
+        assertEquals(3,c.nextPrime(2));
+        assertEquals(7,c.nextPrime(6));
+        assertEquals(-1,c.nextPrime(7));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testIsPrimeExceptions() {
+        CrivelloEsteso c = new CrivelloEsteso(32);
+        c.isPrime(33);
+    }
+
+    @Test
+    public void testSameAsCrivello() {
+        CrivelloDiEratostene c1 = new CrivelloDiEratostene(500003);
+        CrivelloEsteso c2 = new CrivelloEsteso(500003);
+        for (int n = 1; n <= 500003; n++) {
+            assertEquals(c1.isPrime(n), c2.isPrime(n));
+            assertEquals(c1.primeCount(n), c2.primeCount(n));
+        }
+        for (int n = 1; n <= 500003; n += 101)
+            assertEquals(c1.nextPrime(n), c2.nextPrime(n));
+    }
+
+    @Test
+    public void testManyBuffers() {
+        // Buffer da 64 parole per provare il passaggio da un buffer all'altro
+        CrivelloDiEratostene c1 = new CrivelloDiEratostene(300000);
+        CrivelloEsteso c2 = new CrivelloEsteso(300000, 6);
+        for (int n = 1; n <= 300000; n++) {
+            assertEquals(c1.isPrime(n), c2.isPrime(n));
+            assertEquals(c1.primeCount(n), c2.primeCount(n));
+            assertEquals(c1.nextPrime(n), c2.nextPrime(n));
+        }
+    }
+
+    @Test
+    public void testClose() {
+        CrivelloEsteso c = new CrivelloEsteso(300000, 6);
+        assertEquals(true, c.isPrime(299993));
+        c.close();
+        // Chiudere di nuovo non ha effetto
+        c.close();
+        assertEquals(300000, c.getCapacity());
+    }
+
+    @Test(expected=IllegalStateException.class)
+    public void testInterrogazioneDopoClose() {
+        CrivelloEsteso c = new CrivelloEsteso(1000);
+        c.close();
+        c.primeCount(100);
+    }
+
+}
@@ -0,0 +1,59 @@
+package it.unicam.cs.asdl1819.miniproject1;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Test;
+
+public class CrivelloMappatoTest {
+
+    private static Path fileTemporaneo() throws IOException {
+        Path file = Files.createTempFile("crivello", ".bin");
+        // Su alcuni sistemi un file mappato non può essere cancellato subito
+        file.toFile().deleteOnExit();
+        return file;
+    }
+
+    @Test
+    public void testSalvaEApri() throws IOException {
+        Path file = fileTemporaneo();
+        CrivelloDiEratostene c1 = new CrivelloDiEratostene(100001);
+        c1.salva(file);
+        CrivelloMappato c2 = new CrivelloMappato(file);
+        assertEquals(100001, c2.getCapacity());
+        assertEquals(c1.getPrimes(), c2.getPrimes());
+        for (int n = 1; n <= 100001; n++)
+            assertEquals(c1.isPrime(n), c2.isPrime(n));
+        assertEquals(c1.nextPrime(99990), c2.nextPrime(99990));
+        assertEquals(-1, c2.nextPrime(100001));
+    }
+
+    @Test
+    public void testSmall() throws IOException {
+        Path file = fileTemporaneo();
+        new CrivelloDiEratostene(7).salva(file);
+        CrivelloMappato c = new CrivelloMappato(file);
+        assertEquals(true, c.isPrime(1));
+        assertEquals(2, c.nextPrime(1));
+        assertEquals(7, c.nextPrime(6));
+        assertEquals(-1, c.nextPrime(7));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testIsPrimeExceptions() throws IOException {
+        Path file = fileTemporaneo();
+        new CrivelloDiEratostene(32).salva(file);
+        new CrivelloMappato(file).isPrime(33);
+    }
+
+    @Test(expected=IOException.class)
+    public void testNotASieve() throws IOException {
+        Path file = fileTemporaneo();
+        Files.write(file, new byte[64]);
+        new CrivelloMappato(file);
+    }
+
+}
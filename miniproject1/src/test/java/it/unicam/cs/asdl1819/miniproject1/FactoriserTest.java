@@ -2,6 +2,9 @@ package it.unicam.cs.asdl1819.miniproject1;
 
 import static org.junit.Assert.*;
 
+import java.math.BigInteger;
+import java.util.Random;
+
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -64,4 +67,119 @@ public class FactoriserTest {
         assertEquals(true, m1.equals(m2));
     }
 
+    @Test
+    public void testGetFactorsTabella() {
+        Factoriser t = new Factoriser(3000000);
+        assertEquals(true, t.getFactors(1).isEmpty());
+        assertEquals(true, t.getFactors(2134440).equals(f.getFactors(2134440)));
+        for (int n = 1; n <= 3000000; n += 997)
+            assertEquals(true, t.getFactors(n).equals(f.getFactors(n)));
+    }
+
+    @Test
+    public void testGetFactorsOltreTabella() {
+        Factoriser t = new Factoriser(100);
+        Multiset<Integer> m2 = new MyMultiset<Integer>();
+        m2.add(2);
+        m2.add(5);
+        m2.add(4289);
+        assertEquals(true, t.getFactors(42890).equals(m2));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testGetFactorsLongLessThanOne() {
+        Multiset<Long> m = f.getFactors(0L);
+    }
+
+    @Test
+    public void testGetFactorsLong() {
+        assertEquals(true, f.getFactors(1L).isEmpty());
+        Multiset<Long> m2 = new MyMultiset<Long>();
+        m2.add(2L, 3);
+        m2.add(3L, 2);
+        m2.add(5L);
+        m2.add(7L, 2);
+        m2.add(11L, 2);
+        assertEquals(true, f.getFactors(2134440L).equals(m2));
+        m2 = new MyMultiset<Long>();
+        m2.add(2L, 62);
+        assertEquals(true, f.getFactors(1L << 62).equals(m2));
+    }
+
+    @Test
+    public void testGetFactorsLongSemiprimi() {
+        Multiset<Long> m2 = new MyMultiset<Long>();
+        m2.add(1000000007L);
+        m2.add(1000000009L);
+        assertEquals(true, f.getFactors(1000000007L * 1000000009L).equals(m2));
+        m2 = new MyMultiset<Long>();
+        m2.add(2147483647L);
+        m2.add(4294967291L);
+        assertEquals(true, f.getFactors(2147483647L * 4294967291L).equals(m2));
+        m2 = new MyMultiset<Long>();
+        m2.add(3037000493L, 2);
+        assertEquals(true, f.getFactors(3037000493L * 3037000493L).equals(m2));
+        m2 = new MyMultiset<Long>();
+        m2.add(9223372036854775783L);
+        assertEquals(true, f.getFactors(9223372036854775783L).equals(m2));
+    }
+
+    @Test
+    public void testGetFactorsLongCasuali() {
+        Random r = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            long n = 1 + (r.nextLong() >>> (1 + r.nextInt(40)));
+            Multiset<Long> m = f.getFactors(n);
+            long prodotto = 1;
+            for (Long p : m.elementSet()) {
+                assertEquals(true, MillerRabin.isPrime(p));
+                for (int k = 0; k < m.count(p); k++)
+                    prodotto *= p;
+            }
+            assertEquals(n, prodotto);
+        }
+    }
+
+    @Test
+    public void testGetFactorsLongSameAsInt() {
+        for (int n = 1; n <= 200000; n++) {
+            Multiset<Integer> m1 = f.getFactors(n);
+            Multiset<Long> m2 = f.getFactors((long) n);
+            assertEquals(m1.size(), m2.size());
+            for (Integer p : m1.elementSet())
+                assertEquals(m1.count(p), m2.count((long) p));
+        }
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testGetFactorsBigIntegerLessThanOne() {
+        Multiset<BigInteger> m = f.getFactors(BigInteger.ZERO);
+    }
+
+    @Test
+    public void testGetFactorsBigInteger() {
+        assertEquals(true, f.getFactors(BigInteger.ONE).isEmpty());
+        Multiset<BigInteger> m2 = new MyMultiset<BigInteger>();
+        m2.add(BigInteger.valueOf(1000000007L));
+        m2.add(BigInteger.valueOf(1000000009L));
+        assertEquals(true, f.getFactors(BigInteger.valueOf(1000000007L * 1000000009L)).equals(m2));
+        // Un semiprimo maggiore di 2^64
+        BigInteger p = BigInteger.valueOf(4294967291L);
+        BigInteger q = BigInteger.valueOf(4294967311L);
+        m2 = new MyMultiset<BigInteger>();
+        m2.add(p);
+        m2.add(q);
+        assertEquals(true, f.getFactors(p.multiply(q)).equals(m2));
+        // Fattori piccoli, un fattore grande e una potenza
+        BigInteger r = BigInteger.valueOf(2305843009213693951L);
+        BigInteger n = BigInteger.valueOf(2).pow(70).multiply(BigInteger.valueOf(3).pow(5)).multiply(r)
+                .multiply(q).multiply(q);
+        m2 = new MyMultiset<BigInteger>();
+        m2.add(BigInteger.valueOf(2), 70);
+        m2.add(BigInteger.valueOf(3), 5);
+        m2.add(r);
+        m2.add(q, 2);
+        assertEquals(true, f.getFactors(n).equals(m2));
+    }
+
 }
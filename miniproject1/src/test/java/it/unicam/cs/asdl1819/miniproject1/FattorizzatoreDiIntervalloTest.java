@@ -0,0 +1,75 @@
+package it.unicam.cs.asdl1819.miniproject1;
+
+import static org.junit.Assert.*;
+
+import java.util.NoSuchElementException;
+
+import org.junit.Test;
+
+public class FattorizzatoreDiIntervalloTest {
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testFattorizzatoreDiIntervalloExceptions1() {
+        new FattorizzatoreDiIntervallo(0, 10);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testFattorizzatoreDiIntervalloExceptions2() {
+        new FattorizzatoreDiIntervallo(10, 9);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testFattorizzatoreDiIntervalloExceptions3() {
+        new FattorizzatoreDiIntervallo(1, 10, 0);
+    }
+
+    @Test
+    public void testUnSegmento() {
+        FattorizzatoreDiIntervallo f = new FattorizzatoreDiIntervallo(1, 12);
+        assertEquals(true, f.hasNext());
+        Fattorizzazioni r = f.next();
+        assertEquals(false, f.hasNext());
+        assertEquals(12, r.size());
+        assertEquals(true, r.getFactors(0).isEmpty());
+        assertArrayEquals(new int[] { 0, 0, 1, 2, 3, 4, 6, 7, 8, 9, 11, 12, 14 }, r.getInizi());
+        assertArrayEquals(new long[] { 2, 3, 2, 5, 2, 3, 7, 2, 3, 2, 5, 11, 2, 3 }, r.getPrimi());
+        assertArrayEquals(new int[] { 1, 1, 2, 1, 1, 1, 1, 3, 2, 1, 1, 1, 2, 1 }, r.getEsponenti());
+    }
+
+    @Test(expected=NoSuchElementException.class)
+    public void testNextExceptions() {
+        FattorizzatoreDiIntervallo f = new FattorizzatoreDiIntervallo(5, 5);
+        f.next();
+        f.next();
+    }
+
+    @Test
+    public void testSameAsGetFactors() {
+        Factoriser g = new Factoriser();
+        FattorizzatoreDiIntervallo f = new FattorizzatoreDiIntervallo(1, 100000, 7777);
+        long n = 1;
+        while (f.hasNext()) {
+            Fattorizzazioni r = f.next();
+            for (int i = 0; i < r.size(); i++, n++)
+                assertEquals(true, r.getFactors(i).equals(g.getFactors(n)));
+        }
+        assertEquals(100001, n);
+    }
+
+    @Test
+    public void testIntervalloLontano() {
+        Factoriser g = new Factoriser();
+        long a = 100000000000000L - 50000;
+        long b = 100000000000000L + 50000;
+        FattorizzatoreDiIntervallo f = new FattorizzatoreDiIntervallo(a, b);
+        long inizio = a;
+        while (f.hasNext()) {
+            Fattorizzazioni r = f.next();
+            for (int i = 0; i < r.size(); i += 97)
+                assertEquals(true, r.getFactors(i).equals(g.getFactors(inizio + i)));
+            inizio += r.size();
+        }
+        assertEquals(b + 1, inizio);
+    }
+
+}
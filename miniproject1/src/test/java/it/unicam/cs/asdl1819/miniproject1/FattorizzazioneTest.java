@@ -0,0 +1,125 @@
+package it.unicam.cs.asdl1819.miniproject1;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class FattorizzazioneTest {
+
+    @Test
+    public void testColonne() {
+        Fattorizzazione f = new Factoriser().getFattorizzazione(2134440L);
+        assertEquals(5, f.numeroFattori());
+        assertArrayEquals(new long[] { 2, 3, 5, 7, 11 }, f.getPrimi());
+        assertArrayEquals(new int[] { 3, 2, 1, 2, 2 }, f.getEsponenti());
+        assertEquals(7, f.primo(3));
+        assertEquals(2, f.esponente(3));
+    }
+
+    @Test
+    public void testImmutabile() {
+        Fattorizzazione f = new Factoriser().getFattorizzazione(12L);
+        f.getPrimi()[0] = 5;
+        f.getEsponenti()[0] = 5;
+        assertEquals(2, f.primo(0));
+        assertEquals(2, f.esponente(0));
+    }
+
+    @Test
+    public void testUno() {
+        Fattorizzazione f = new Factoriser().getFattorizzazione(1L);
+        assertEquals(0, f.numeroFattori());
+        assertEquals(true, f.getFactors().isEmpty());
+        assertEquals("1", f.toString());
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testGetFattorizzazioneExceptions() {
+        new Factoriser().getFattorizzazione(0L);
+    }
+
+    @Test
+    public void testEqualsHashCodeToString() {
+        Factoriser g = new Factoriser();
+        Fattorizzazione f = g.getFattorizzazione(360L);
+        assertEquals(true, f.equals(g.getFattorizzazione(360L)));
+        assertEquals(g.getFattorizzazione(360L).hashCode(), f.hashCode());
+        assertEquals(false, f.equals(g.getFattorizzazione(180L)));
+        assertEquals(false, f.equals(null));
+        assertEquals("2^3 * 3^2 * 5", f.toString());
+    }
+
+    @Test
+    public void testGetFactors() {
+        Factoriser g = new Factoriser();
+        for (long n = 1; n <= 20000; n++)
+            assertEquals(true, g.getFattorizzazione(n).getFactors().equals(g.getFactors(n)));
+    }
+
+    @Test
+    public void testDivisori() {
+        Fattorizzazione f = new Factoriser().getFattorizzazione(360L);
+        assertEquals(360, f.valore());
+        assertEquals(24, f.numeroDivisori());
+        assertEquals(1170, f.sommaDivisori());
+        long[] attesi = { 1, 2, 3, 4, 5, 6, 8, 9, 10, 12, 15, 18, 20, 24, 30, 36, 40, 45, 60, 72, 90, 120, 180, 360 };
+        assertArrayEquals(attesi, f.divisoriOrdinati().toArray());
+        long[] divisori = f.divisori().toArray();
+        Arrays.sort(divisori);
+        assertArrayEquals(attesi, divisori);
+        assertEquals(0, f.numeroDivisoriFinoA(0));
+        assertEquals(9, f.numeroDivisoriFinoA(11));
+        assertEquals(24, f.numeroDivisoriFinoA(360));
+    }
+
+    @Test
+    public void testDivisoriUno() {
+        Fattorizzazione f = new Factoriser().getFattorizzazione(1L);
+        assertArrayEquals(new long[] { 1 }, f.divisori().toArray());
+        assertArrayEquals(new long[] { 1 }, f.divisoriOrdinati().toArray());
+        assertEquals(1, f.sommaDivisori());
+    }
+
+    @Test
+    public void testDivisoriSameAsDivisione() {
+        Factoriser g = new Factoriser();
+        for (long n = 1; n <= 3000; n++) {
+            Fattorizzazione f = g.getFattorizzazione(n);
+            long[] attesi = new long[(int) f.numeroDivisori()];
+            int quanti = 0;
+            long somma = 0;
+            for (long d = 1; d <= n; d++)
+                if (n % d == 0) {
+                    attesi[quanti++] = d;
+                    somma += d;
+                }
+            assertEquals(attesi.length, quanti);
+            assertEquals(somma, f.sommaDivisori());
+            assertArrayEquals(attesi, f.divisoriOrdinati().toArray());
+            long[] divisori = f.divisori().toArray();
+            Arrays.sort(divisori);
+            assertArrayEquals(attesi, divisori);
+            for (int k = 0; k < attesi.length; k++)
+                assertEquals(k + 1, f.numeroDivisoriFinoA(attesi[k]));
+        }
+    }
+
+    @Test
+    public void testDivisoriPigri() {
+        // Il prodotto dei primi 15 numeri primi ha 2^15 divisori
+        Fattorizzazione f = new Factoriser().getFattorizzazione(614889782588491410L);
+        assertEquals(32768, f.numeroDivisori());
+        assertArrayEquals(new long[] { 1, 2, 3, 5, 6 }, f.divisoriOrdinati().limit(5).toArray());
+        assertEquals(614889782588491410L, f.divisoriOrdinati().max().getAsLong());
+        assertEquals(32768, f.divisori().count());
+        assertEquals(5, f.numeroDivisoriFinoA(6));
+    }
+
+    @Test(expected=ArithmeticException.class)
+    public void testSommaDivisoriOverflow() {
+        new Factoriser().getFattorizzazione(3L << 61).sommaDivisori();
+    }
+
+}
@@ -0,0 +1,73 @@
+package it.unicam.cs.asdl1819.miniproject1;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class FattorizzazioniTest {
+
+    @Test
+    public void testColonne() {
+        Fattorizzazioni r = new Factoriser().getFactors(new int[] { 1, 12, 7, 2134440 }, 1);
+        assertEquals(4, r.size());
+        assertArrayEquals(new int[] { 0, 0, 2, 3, 8 }, r.getInizi());
+        assertArrayEquals(new long[] { 2, 3, 7, 2, 3, 5, 7, 11 }, r.getPrimi());
+        assertArrayEquals(new int[] { 2, 1, 1, 3, 2, 1, 2, 2 }, r.getEsponenti());
+        assertEquals(0, r.numeroFattori(0));
+        assertEquals(5, r.numeroFattori(3));
+        assertEquals(true, r.getFactors(0).isEmpty());
+    }
+
+    @Test
+    public void testVuoto() {
+        Fattorizzazioni r = new Factoriser().getFactors(new long[0], 4);
+        assertEquals(0, r.size());
+        assertEquals(0, r.getPrimi().length);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testNumeroMinoreDiUno() {
+        new Factoriser().getFactors(new long[] { 5, 0, 7 }, 2);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testParallelismo() {
+        new Factoriser().getFactors(new int[] { 5 }, 0);
+    }
+
+    @Test(expected=IndexOutOfBoundsException.class)
+    public void testNumeroFattoriExceptions() {
+        new Factoriser().getFactors(new int[] { 5 }, 1).numeroFattori(1);
+    }
+
+    @Test
+    public void testSameAsGetFactors() {
+        Factoriser f = new Factoriser();
+        Random r = new Random(42);
+        long[] numeri = new long[20000];
+        for (int i = 0; i < numeri.length; i++)
+            numeri[i] = 1 + (r.nextLong() >>> (1 + r.nextInt(50)));
+        Fattorizzazioni sequenziale = f.getFactors(numeri, 1);
+        Fattorizzazioni parallelo = f.getFactors(numeri, 4);
+        assertArrayEquals(sequenziale.getInizi(), parallelo.getInizi());
+        assertArrayEquals(sequenziale.getPrimi(), parallelo.getPrimi());
+        assertArrayEquals(sequenziale.getEsponenti(), parallelo.getEsponenti());
+        for (int i = 0; i < numeri.length; i++)
+            assertEquals(true, parallelo.getFactors(i).equals(f.getFactors(numeri[i])));
+    }
+
+    @Test
+    public void testTabella() {
+        Factoriser f = new Factoriser();
+        Factoriser t = new Factoriser(100000);
+        int[] numeri = new int[200000];
+        for (int i = 0; i < numeri.length; i++)
+            numeri[i] = i + 1;
+        Fattorizzazioni r = t.getFactors(numeri, 3);
+        for (int i = 0; i < numeri.length; i++)
+            assertEquals(true, r.getFactors(i).equals(f.getFactors((long) numeri[i])));
+    }
+
+}
@@ -0,0 +1,149 @@
+package it.unicam.cs.asdl1819.miniproject1;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class FunzioniMoltiplicativeTest {
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testTotienteExceptions() {
+        FunzioniMoltiplicative.totiente(0);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testSegmentoExceptions() {
+        FunzioniMoltiplicative.mobius(0L, 10);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testSegmentoTroppoGrande() {
+        FunzioniMoltiplicative.sommaDivisori(FunzioniMoltiplicative.MASSIMO_SEGMENTO, 2);
+    }
+
+    @Test
+    public void testValoriNoti() {
+        assertEquals(12, FunzioniMoltiplicative.totiente(36)[36]);
+        assertEquals(9, FunzioniMoltiplicative.numeroDivisori(36)[36]);
+        assertEquals(91, FunzioniMoltiplicative.sommaDivisori(36)[36]);
+        assertEquals(-1, FunzioniMoltiplicative.mobius(30)[30]);
+        assertEquals(0, FunzioniMoltiplicative.mobius(30)[12]);
+        assertEquals(1, FunzioniMoltiplicative.mobius(1)[1]);
+        assertEquals(1, FunzioniMoltiplicative.totiente(1)[1]);
+        assertEquals(0, FunzioniMoltiplicative.totiente(1)[0]);
+    }
+
+    @Test
+    public void testSameAsFactoriser() {
+        int n = 100000;
+        int[] phi = FunzioniMoltiplicative.totiente(n);
+        int[] d = FunzioniMoltiplicative.numeroDivisori(n);
+        long[] sigma = FunzioniMoltiplicative.sommaDivisori(n);
+        byte[] mu = FunzioniMoltiplicative.mobius(n);
+        Factoriser f = new Factoriser();
+        for (int i = 1; i <= n; i++) {
+            long[] attesi = valori(f.getFactors((long) i));
+            assertEquals(attesi[0], phi[i]);
+            assertEquals(attesi[1], d[i]);
+            assertEquals(attesi[2], sigma[i]);
+            assertEquals(attesi[3], mu[i]);
+        }
+    }
+
+    @Test
+    public void testSegmenti() {
+        int n = 50000;
+        int[] phi = FunzioniMoltiplicative.totiente(n);
+        int[] d = FunzioniMoltiplicative.numeroDivisori(n);
+        long[] sigma = FunzioniMoltiplicative.sommaDivisori(n);
+        byte[] mu = FunzioniMoltiplicative.mobius(n);
+        for (int lo = 1; lo <= n; lo += 4999) {
+            int quanti = Math.min(4999, n - lo + 1);
+            long[] phiSegmento = FunzioniMoltiplicative.totiente((long) lo, quanti);
+            int[] dSegmento = FunzioniMoltiplicative.numeroDivisori((long) lo, quanti);
+            long[] sigmaSegmento = FunzioniMoltiplicative.sommaDivisori((long) lo, quanti);
+            byte[] muSegmento = FunzioniMoltiplicative.mobius((long) lo, quanti);
+            for (int i = 0; i < quanti; i++) {
+                assertEquals(phi[lo + i], phiSegmento[i]);
+                assertEquals(d[lo + i], dSegmento[i]);
+                assertEquals(sigma[lo + i], sigmaSegmento[i]);
+                assertEquals(mu[lo + i], muSegmento[i]);
+            }
+        }
+    }
+
+    @Test
+    public void testSegmentoLontano() {
+        long lo = 1000000000000L;
+        int quanti = 20000;
+        long[] phi = FunzioniMoltiplicative.totiente(lo, quanti);
+        int[] d = FunzioniMoltiplicative.numeroDivisori(lo, quanti);
+        long[] sigma = FunzioniMoltiplicative.sommaDivisori(lo, quanti);
+        byte[] mu = FunzioniMoltiplicative.mobius(lo, quanti);
+        Factoriser f = new Factoriser();
+        for (int i = 0; i < quanti; i += 13) {
+            long[] attesi = valori(f.getFactors(lo + i));
+            assertEquals(attesi[0], phi[i]);
+            assertEquals(attesi[1], d[i]);
+            assertEquals(attesi[2], sigma[i]);
+            assertEquals(attesi[3], mu[i]);
+        }
+    }
+
+    @Test
+    public void testSegmentiDaUnFattorizzatore() {
+        int n = 50000;
+        int[] phi = FunzioniMoltiplicative.totiente(n);
+        int[] d = FunzioniMoltiplicative.numeroDivisori(n);
+        long[] sigma = FunzioniMoltiplicative.sommaDivisori(n);
+        byte[] mu = FunzioniMoltiplicative.mobius(n);
+        FattorizzatoreDiIntervallo f = new FattorizzatoreDiIntervallo(1, n, 4999);
+        int lo = 1;
+        while (f.hasNext()) {
+            Fattorizzazioni segmento = f.next();
+            long[] phiSegmento = FunzioniMoltiplicative.totiente(segmento);
+            int[] dSegmento = FunzioniMoltiplicative.numeroDivisori(segmento);
+            long[] sigmaSegmento = FunzioniMoltiplicative.sommaDivisori(segmento);
+            byte[] muSegmento = FunzioniMoltiplicative.mobius(segmento);
+            for (int i = 0; i < segmento.size(); i++) {
+                assertEquals(phi[lo + i], phiSegmento[i]);
+                assertEquals(d[lo + i], dSegmento[i]);
+                assertEquals(sigma[lo + i], sigmaSegmento[i]);
+                assertEquals(mu[lo + i], muSegmento[i]);
+            }
+            lo += segmento.size();
+        }
+        assertEquals(n + 1, lo);
+    }
+
+    @Test(expected=ArithmeticException.class)
+    public void testSommaDivisoriOverflow() {
+        Fattorizzazioni f = new Factoriser().getFactors(new long[] { 3L << 61 }, 1);
+        FunzioniMoltiplicative.sommaDivisori(f);
+    }
+
+    @Test
+    public void testSegmentoVuoto() {
+        assertEquals(0, FunzioniMoltiplicative.totiente(5L, 0).length);
+        assertEquals(0, FunzioniMoltiplicative.mobius(5L, 0).length);
+    }
+
+    // Calcola φ, d, σ e μ dalla fattorizzazione
+    private static long[] valori(Multiset<Long> fattori) {
+        long phi = 1, d = 1, sigma = 1, mu = 1;
+        for (Long p : fattori.elementSet()) {
+            int e = fattori.count(p);
+            long potenza = 1, somma = 1;
+            for (int k = 0; k < e; k++) {
+                potenza *= p;
+                somma += potenza;
+            }
+            phi *= potenza / p * (p - 1);
+            d *= e + 1;
+            sigma *= somma;
+            mu = e > 1 ? 0 : -mu;
+        }
+        return new long[] { phi, d, sigma, mu };
+    }
+
+}
@@ -0,0 +1,245 @@
+package it.unicam.cs.asdl1819.miniproject1;
+
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+import org.junit.Test;
+
+public class HashMultisetTest {
+
+    @Test
+    public void testHashMultiset() {
+        HashMultiset<Integer> m = new HashMultiset<Integer>();
+        assertEquals(true, m.isEmpty());
+        assertEquals(0, m.size());
+        assertEquals(false, m.iterator().hasNext());
+    }
+
+    @Test
+    public void testAddCount() {
+        HashMultiset<Integer> m = new HashMultiset<Integer>();
+        assertEquals(0, m.add(3, 2));
+        m.add(2);
+        assertEquals(2, m.add(3, 0));
+        assertEquals(2, m.count(3));
+        assertEquals(1, m.count(2));
+        assertEquals(0, m.count(4));
+        assertEquals(3, m.size());
+        assertEquals(true, m.contains(2));
+        assertEquals(false, m.contains(4));
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testAddNull() {
+        new HashMultiset<Integer>().add(null);
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testCountNull() {
+        new HashMultiset<Integer>().count(null);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testAddNegative() {
+        new HashMultiset<Integer>().add(1, -1);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testAddOverflow() {
+        HashMultiset<Integer> m = new HashMultiset<Integer>();
+        m.add(1, Integer.MAX_VALUE - 1);
+        m.add(1, 2);
+    }
+
+    @Test
+    public void testRemove() {
+        HashMultiset<Integer> m = new HashMultiset<Integer>();
+        m.add(1, 5);
+        assertEquals(5, m.remove(1, 2));
+        assertEquals(3, m.count(1));
+        assertEquals(3, m.remove(1, 10));
+        assertEquals(0, m.count(1));
+        assertEquals(false, m.remove(1));
+        assertEquals(true, m.isEmpty());
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testRemoveNegative() {
+        new HashMultiset<Integer>().remove(1, -1);
+    }
+
+    @Test
+    public void testSetCount() {
+        HashMultiset<String> m = new HashMultiset<String>();
+        assertEquals(0, m.setCount("a", 4));
+        assertEquals(4, m.setCount("a", 2));
+        assertEquals(2, m.setCount("a", 0));
+        assertEquals(false, m.contains("a"));
+        assertEquals(0, m.size());
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testSetCountNegative() {
+        new HashMultiset<String>().setCount("a", -1);
+    }
+
+    @Test
+    public void testElementSetIterator() {
+        HashMultiset<Integer> m = new HashMultiset<Integer>();
+        m.add(1, 2);
+        m.add(7);
+        m.add(3, 3);
+        Set<Integer> s = new HashSet<Integer>();
+        s.add(1);
+        s.add(7);
+        s.add(3);
+        assertEquals(s, m.elementSet());
+        Iterator<Integer> it = m.iterator();
+        int quanti = 0;
+        Integer precedente = null;
+        Set<Integer> visti = new HashSet<Integer>();
+        while (it.hasNext()) {
+            Integer e = it.next();
+            // Le occorrenze dello stesso elemento sono consecutive
+            if (!e.equals(precedente))
+                assertEquals(true, visti.add(e));
+            precedente = e;
+            quanti++;
+        }
+        assertEquals(6, quanti);
+    }
+
+    @Test(expected=NoSuchElementException.class)
+    public void testIteratorExceptions() {
+        HashMultiset<Integer> m = new HashMultiset<Integer>();
+        m.add(1);
+        Iterator<Integer> it = m.iterator();
+        it.next();
+        it.next();
+    }
+
+    @Test
+    public void testEqualsHashCode() {
+        HashMultiset<Integer> m1 = new HashMultiset<Integer>();
+        HashMultiset<Integer> m2 = new HashMultiset<Integer>();
+        MyMultiset<Integer> m3 = new MyMultiset<Integer>();
+        for (int i = 0; i < 100; i++) {
+            m1.add(i, i % 3 + 1);
+            m2.add(99 - i, (99 - i) % 3 + 1);
+            m3.add(i, i % 3 + 1);
+        }
+        assertEquals(true, m1.equals(m2));
+        assertEquals(m1.hashCode(), m2.hashCode());
+        assertEquals(true, m1.equals(m3));
+        m2.remove(5);
+        assertEquals(false, m1.equals(m2));
+        assertEquals(false, m1.equals(null));
+        m1.clear();
+        assertEquals(true, m1.isEmpty());
+        assertEquals(0, m1.count(5));
+    }
+
+    @Test
+    public void testSameAsHashMap() {
+        HashMultiset<Integer> m = new HashMultiset<Integer>();
+        Map<Integer, Integer> atteso = new HashMap<Integer, Integer>();
+        Random r = new Random(42);
+        long totale = 0;
+        for (int i = 0; i < 200000; i++) {
+            Integer e = r.nextInt(5000);
+            int c = atteso.containsKey(e) ? atteso.get(e) : 0;
+            int n = r.nextInt(4);
+            switch (r.nextInt(3)) {
+            case 0:
+                assertEquals(c, m.add(e, n));
+                c += n;
+                totale += n;
+                break;
+            case 1:
+                assertEquals(c, m.remove(e, n));
+                totale -= Math.min(c, n);
+                c = Math.max(0, c - n);
+                break;
+            default:
+                assertEquals(c, m.setCount(e, n));
+                totale += n - c;
+                c = n;
+            }
+            if (c == 0)
+                atteso.remove(e);
+            else
+                atteso.put(e, c);
+            assertEquals(totale, m.size());
+        }
+        assertEquals(atteso.keySet(), m.elementSet());
+        for (Map.Entry<Integer, Integer> e : atteso.entrySet())
+            assertEquals((int) e.getValue(), m.count(e.getKey()));
+    }
+
+    @Test
+    public void testMoltiElementi() {
+        HashMultiset<Integer> m = new HashMultiset<Integer>();
+        for (int i = 0; i < 1000000; i++)
+            m.add(i);
+        for (int i = 0; i < 1000000; i += 2)
+            m.add(i);
+        assertEquals(1500000, m.size());
+        for (int i = 0; i < 1000000; i++)
+            assertEquals(i % 2 == 0 ? 2 : 1, m.count(i));
+        for (int i = 0; i < 1000000; i += 3)
+            m.remove(i, 2);
+        for (int i = 0; i < 1000000; i++)
+            assertEquals(i % 3 == 0 ? 0 : i % 2 == 0 ? 2 : 1, m.count(i));
+    }
+
+    @Test
+    public void testHashCodeAggiornato() {
+        HashMultiset<Integer> m1 = new HashMultiset<Integer>();
+        HashMultiset<Integer> m2 = new HashMultiset<Integer>();
+        for (int i = 0; i < 1000; i++)
+            m1.add(i, 3);
+        for (int i = 0; i < 1000; i += 2)
+            m1.remove(i, 2);
+        for (int i = 999; i >= 0; i--)
+            m2.add(i, i % 2 == 0 ? 1 : 3);
+        assertEquals(m2.hashCode(), m1.hashCode());
+        assertEquals(true, m1.equals(m2));
+        m1.setCount(0, 2);
+        assertEquals(false, m1.equals(m2));
+        m1.clear();
+        assertEquals(0, m1.hashCode());
+    }
+
+    @Test
+    public void testEntryIteratorForEachEntry() {
+        HashMultiset<Integer> m = new HashMultiset<Integer>();
+        for (int i = 0; i < 1000; i++)
+            m.add(i, i + 1);
+        m.add(5, 1000000000);
+        Map<Integer, Integer> visti = new HashMap<Integer, Integer>();
+        for (Iterator<Map.Entry<Integer, Integer>> it = m.entryIterator(); it.hasNext();) {
+            Map.Entry<Integer, Integer> e = it.next();
+            assertEquals(null, visti.put(e.getKey(), e.getValue()));
+        }
+        assertEquals(1000, visti.size());
+        assertEquals(1000000006, (int) visti.get(5));
+        final long[] somma = new long[1];
+        m.forEachEntry(new BiConsumer<Integer, Integer>() {
+            @Override
+            public void accept(Integer e, Integer c) {
+                somma[0] += c;
+            }
+        });
+        assertEquals(500500L + 1000000000L, somma[0]);
+        assertEquals(false, new HashMultiset<Integer>().entryIterator().hasNext());
+    }
+
+}
@@ -0,0 +1,166 @@
+package it.unicam.cs.asdl1819.miniproject1;
+
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.BiConsumer;
+
+import org.junit.Test;
+
+public class IntMultisetTest {
+
+    @Test
+    public void testIntMultiset() {
+        IntMultiset m = new IntMultiset();
+        assertEquals(true, m.isEmpty());
+        assertEquals(0, m.size());
+        assertEquals(0, m.count(0));
+    }
+
+    @Test
+    public void testAddCountRemove() {
+        IntMultiset m = new IntMultiset();
+        m.add(0);
+        m.add(-5, 3);
+        m.add(Integer.MIN_VALUE);
+        assertEquals(1, m.count(0));
+        assertEquals(3, m.count(-5));
+        assertEquals(1, m.count(Integer.MIN_VALUE));
+        assertEquals(5, m.size());
+        assertEquals(3, m.distinti());
+        assertEquals(3, m.remove(-5, 1));
+        assertEquals(true, m.remove(0));
+        assertEquals(false, m.contains(0));
+        assertEquals(2, m.setCount(-5, 7));
+        assertEquals(8, m.size());
+        m.clear();
+        assertEquals(true, m.isEmpty());
+        assertEquals(0, m.hashCode());
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testAddNegative() {
+        new IntMultiset().add(1, -1);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testAddOverflow() {
+        IntMultiset m = new IntMultiset();
+        m.add(1, Integer.MAX_VALUE);
+        m.add(1);
+    }
+
+    @Test
+    public void testForEach() {
+        IntMultiset m = new IntMultiset();
+        for (int i = 0; i < 100; i++)
+            m.add(i, i + 1);
+        final long[] somme = new long[2];
+        m.forEach(new IntIntConsumer() {
+            @Override
+            public void accept(int element, int count) {
+                somme[0] += element;
+                somme[1] += count;
+            }
+        });
+        assertEquals(4950, somme[0]);
+        assertEquals(5050, somme[1]);
+    }
+
+    @Test
+    public void testAsMultiset() {
+        IntMultiset m = new IntMultiset();
+        Multiset<Integer> vista = m.asMultiset();
+        vista.add(3, 2);
+        m.add(4);
+        assertEquals(2, m.count(3));
+        assertEquals(1, vista.count(4));
+        assertEquals(0, vista.count("4"));
+        assertEquals(3, vista.size());
+        MyMultiset<Integer> atteso = new MyMultiset<Integer>();
+        atteso.add(3, 2);
+        atteso.add(4);
+        assertEquals(true, vista.equals(atteso));
+        assertEquals(true, atteso.equals(vista));
+        assertEquals(atteso.hashCode(), vista.hashCode());
+        assertEquals(atteso.hashCode(), m.hashCode());
+        assertEquals(atteso.elementSet(), vista.elementSet());
+        Iterator<Integer> it = vista.iterator();
+        int somma = 0;
+        while (it.hasNext())
+            somma += it.next();
+        assertEquals(10, somma);
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testAsMultisetNull() {
+        new IntMultiset().asMultiset().add(null);
+    }
+
+    @Test
+    public void testEquals() {
+        IntMultiset m1 = new IntMultiset();
+        IntMultiset m2 = new IntMultiset();
+        for (int i = 0; i < 1000; i++) {
+            m1.add(i * 7, i % 5 + 1);
+            m2.add((999 - i) * 7, (999 - i) % 5 + 1);
+        }
+        assertEquals(true, m1.equals(m2));
+        assertEquals(m1.hashCode(), m2.hashCode());
+        m2.add(0);
+        assertEquals(false, m1.equals(m2));
+    }
+
+    @Test
+    public void testSameAsHashMap() {
+        IntMultiset m = new IntMultiset();
+        Map<Integer, Integer> atteso = new HashMap<Integer, Integer>();
+        Random r = new Random(42);
+        for (int i = 0; i < 200000; i++) {
+            int e = r.nextInt(5000) - 2500;
+            int c = atteso.containsKey(e) ? atteso.get(e) : 0;
+            int n = r.nextInt(4);
+            if (r.nextBoolean()) {
+                assertEquals(c, m.add(e, n));
+                c += n;
+            } else {
+                assertEquals(c, m.remove(e, n));
+                c = Math.max(0, c - n);
+            }
+            if (c == 0)
+                atteso.remove(e);
+            else
+                atteso.put(e, c);
+        }
+        assertEquals(atteso.size(), m.distinti());
+        for (Map.Entry<Integer, Integer> e : atteso.entrySet())
+            assertEquals((int) e.getValue(), m.count(e.getKey()));
+    }
+
+    @Test
+    public void testAsMultisetEntries() {
+        IntMultiset m = new IntMultiset();
+        m.add(1, 2);
+        m.add(5, 3);
+        Multiset<Integer> vista = m.asMultiset();
+        Map<Integer, Integer> visti = new HashMap<Integer, Integer>();
+        for (Iterator<Map.Entry<Integer, Integer>> it = vista.entryIterator(); it.hasNext();) {
+            Map.Entry<Integer, Integer> e = it.next();
+            visti.put(e.getKey(), e.getValue());
+        }
+        assertEquals(2, visti.size());
+        assertEquals(3, (int) visti.get(5));
+        final int[] somma = new int[1];
+        vista.forEachEntry(new BiConsumer<Integer, Integer>() {
+            @Override
+            public void accept(Integer e, Integer c) {
+                somma[0] += e * c;
+            }
+        });
+        assertEquals(17, somma[0]);
+    }
+
+}
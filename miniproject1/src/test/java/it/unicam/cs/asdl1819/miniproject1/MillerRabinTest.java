@@ -0,0 +1,66 @@
+package it.unicam.cs.asdl1819.miniproject1;
+
+import static org.junit.Assert.*;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class MillerRabinTest {
+
+    @Test
+    public void testIsPrimeSmall() {
+        assertEquals(false, MillerRabin.isPrime(-7));
+        assertEquals(false, MillerRabin.isPrime(0));
+        assertEquals(false, MillerRabin.isPrime(1));
+        assertEquals(true, MillerRabin.isPrime(2));
+        assertEquals(true, MillerRabin.isPrime(61));
+        assertEquals(false, MillerRabin.isPrime(561));
+    }
+
+    @Test
+    public void testSameAsCrivello() {
+        CrivelloDiEratostene c = new CrivelloDiEratostene(1000000);
+        for (int n = 2; n <= 1000000; n++) {
+            assertEquals(c.isPrime(n), MillerRabin.isPrime(n));
+            assertEquals(c.isPrime(n), MillerRabin.isPrime((long) n));
+        }
+    }
+
+    @Test
+    public void testIsPrimeInt() {
+        assertEquals(true, MillerRabin.isPrime(Integer.MAX_VALUE));
+        assertEquals(false, MillerRabin.isPrime(2147483645));
+        // Pseudoprimi forti in base 2
+        assertEquals(false, MillerRabin.isPrime(2047));
+        assertEquals(false, MillerRabin.isPrime(1373653));
+        assertEquals(false, MillerRabin.isPrime(25326001));
+    }
+
+    @Test
+    public void testIsPrimeLong() {
+        assertEquals(true, MillerRabin.isPrime(2305843009213693951L));
+        assertEquals(true, MillerRabin.isPrime(9223372036854775783L));
+        assertEquals(false, MillerRabin.isPrime(Long.MAX_VALUE));
+        assertEquals(false, MillerRabin.isPrime(-9223372036854775783L));
+        // Pseudoprimi forti per molte basi
+        assertEquals(false, MillerRabin.isPrime(3215031751L));
+        assertEquals(false, MillerRabin.isPrime(3825123056546413051L));
+        assertEquals(false, MillerRabin.isPrime(1000000007L * 1000000009L));
+    }
+
+    @Test
+    public void testSameAsBigInteger() {
+        Random r = new Random(42);
+        for (int i = 0; i < 20000; i++) {
+            long n = r.nextLong() >>> (1 + r.nextInt(40));
+            assertEquals(BigInteger.valueOf(n).isProbablePrime(50), MillerRabin.isPrime(n));
+        }
+        for (int i = 0; i < 200; i++) {
+            long p = BigInteger.probablePrime(33 + r.nextInt(30), r).longValue();
+            assertEquals(true, MillerRabin.isPrime(p));
+        }
+    }
+
+}
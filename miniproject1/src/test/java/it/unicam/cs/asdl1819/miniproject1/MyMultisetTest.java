@@ -2,11 +2,15 @@ package it.unicam.cs.asdl1819.miniproject1;
 
 import static org.junit.Assert.*;
 
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.function.BiConsumer;
 
 import org.junit.Test;
 
@@ -497,4 +501,132 @@ public class MyMultisetTest {
         assertEquals(true,m1.equals(m2));
     }
 
+    @Test
+    public void testEqualsObjectSameElementsDifferentCounts() {
+        MyMultiset<Integer> m1 = new MyMultiset<Integer>();
+        m1.add(1);
+        m1.add(2, 2);
+        MyMultiset<Integer> m2 = new MyMultiset<Integer>();
+        m2.add(1, 2);
+        m2.add(2);
+        assertEquals(false, m1.equals(m2));
+        assertEquals(false, m1.equals("1, 2, 2"));
+    }
+
+    @Test
+    public void testEqualsObjectHashMultiset() {
+        MyMultiset<Integer> m1 = new MyMultiset<Integer>();
+        HashMultiset<Integer> m2 = new HashMultiset<Integer>();
+        m1.add(3, 5);
+        m1.add(4);
+        m2.add(4);
+        m2.add(3, 5);
+        assertEquals(true, m1.equals(m2));
+        assertEquals(m1.hashCode(), m2.hashCode());
+    }
+
+    @Test
+    public void testSizeHashCodeAggiornati() {
+        MyMultiset<Integer> m1 = new MyMultiset<Integer>();
+        MyMultiset<Integer> m2 = new MyMultiset<Integer>();
+        m1.add(3, 5);
+        m1.setCount(4, 7);
+        m1.remove(3, 2);
+        m1.add(9);
+        m1.remove(9);
+        m2.add(4, 7);
+        m2.add(3, 3);
+        assertEquals(10, m1.size());
+        assertEquals(m2.hashCode(), m1.hashCode());
+        m1.setCount(4, 0);
+        assertEquals(3, m1.size());
+        m1.clear();
+        assertEquals(0, m1.size());
+        assertEquals(new MyMultiset<Integer>().hashCode(), m1.hashCode());
+    }
+
+    @Test
+    public void testChiaveHashMap() {
+        Map<Multiset<Integer>, String> mappa = new HashMap<Multiset<Integer>, String>();
+        Factoriser f = new Factoriser();
+        for (int n = 1; n <= 1000; n++)
+            mappa.put(f.getFactors(n), "" + n);
+        assertEquals(1000, mappa.size());
+        assertEquals("360", mappa.get(f.getFactors(360)));
+    }
+
+    @Test
+    public void testEqualsOltreIntegerMaxValue() {
+        MyMultiset<Integer> m = new MyMultiset<Integer>();
+        HashMultiset<Integer> h = new HashMultiset<Integer>();
+        m.add(1, Integer.MAX_VALUE);
+        m.add(2, 5);
+        h.add(1, Integer.MAX_VALUE);
+        h.add(2, 5);
+        assertEquals(Integer.MAX_VALUE, m.size());
+        assertEquals(true, m.equals(h));
+        assertEquals(true, h.equals(m));
+        assertEquals(h.hashCode(), m.hashCode());
+        Map<Multiset<Integer>, String> mappa = new HashMap<Multiset<Integer>, String>();
+        mappa.put(h, "h");
+        assertEquals("h", mappa.get(m));
+        m.remove(2, 5);
+        assertEquals(Integer.MAX_VALUE, m.size());
+        m.remove(1);
+        assertEquals(Integer.MAX_VALUE - 1, m.size());
+    }
+
+    @Test
+    public void testIteratorLazy() {
+        MyMultiset<Integer> m = new MyMultiset<Integer>();
+        m.add(7, 1000000000);
+        m.add(8);
+        Iterator<Integer> itr = m.iterator();
+        for (int i = 0; i < 1000; i++)
+            assertEquals(7, (int) itr.next());
+        assertEquals(true, itr.hasNext());
+    }
+
+    @Test(expected=NoSuchElementException.class)
+    public void testIteratorNoSuchElement() {
+        MyMultiset<Integer> m = new MyMultiset<Integer>();
+        m.add(7);
+        Iterator<Integer> itr = m.iterator();
+        itr.next();
+        itr.next();
+    }
+
+    @Test
+    public void testEntryIterator() {
+        MyMultiset<Integer> m = new MyMultiset<Integer>();
+        m.add(7, 1000000000);
+        m.add(8);
+        m.add(9, 3);
+        m.remove(8);
+        Iterator<Map.Entry<Integer, Integer>> itr = m.entryIterator();
+        Map.Entry<Integer, Integer> e = itr.next();
+        assertEquals(7, (int) e.getKey());
+        assertEquals(1000000000, (int) e.getValue());
+        e = itr.next();
+        assertEquals(9, (int) e.getKey());
+        assertEquals(3, (int) e.getValue());
+        assertEquals(false, itr.hasNext());
+    }
+
+    @Test
+    public void testForEachEntry() {
+        MyMultiset<String> m = new MyMultiset<String>();
+        m.add("a", 2);
+        m.add("b", 5);
+        final Map<String, Integer> visti = new HashMap<String, Integer>();
+        m.forEachEntry(new BiConsumer<String, Integer>() {
+            @Override
+            public void accept(String e, Integer c) {
+                assertEquals(null, visti.put(e, c));
+            }
+        });
+        assertEquals(2, visti.size());
+        assertEquals(5, (int) visti.get("b"));
+    }
+
 }
@@ -0,0 +1,128 @@
+package it.unicam.cs.asdl1819.miniproject1;
+
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class OperazioniSuMultisetTest {
+
+    private static MyMultiset<String> multiset(String... elementi) {
+        MyMultiset<String> m = new MyMultiset<String>();
+        for (String e : elementi)
+            m.add(e);
+        return m;
+    }
+
+    @Test
+    public void testUnion() {
+        MyMultiset<String> a = multiset("a", "a", "b");
+        MyMultiset<String> b = multiset("a", "b", "b", "c");
+        assertEquals(multiset("a", "a", "b", "b", "c"), OperazioniSuMultiset.union(a, b));
+        // I parametri non vengono modificati
+        assertEquals(multiset("a", "a", "b"), a);
+        assertEquals(multiset("a", "b", "b", "c"), b);
+    }
+
+    @Test
+    public void testIntersection() {
+        MyMultiset<String> a = multiset("a", "a", "b", "d");
+        MyMultiset<String> b = multiset("a", "b", "b", "c");
+        assertEquals(multiset("a", "b"), OperazioniSuMultiset.intersection(a, b));
+        assertEquals(true, OperazioniSuMultiset.intersection(a, new MyMultiset<String>()).isEmpty());
+    }
+
+    @Test
+    public void testSum() {
+        MyMultiset<String> a = multiset("a", "b");
+        MyMultiset<String> b = multiset("a", "c");
+        assertEquals(multiset("a", "a", "b", "c"), OperazioniSuMultiset.sum(a, b));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testSumOverflow() {
+        HashMultiset<String> a = new HashMultiset<String>();
+        a.add("a", Integer.MAX_VALUE);
+        OperazioniSuMultiset.sum(a, multiset("a"));
+    }
+
+    @Test
+    public void testDifference() {
+        MyMultiset<String> a = multiset("a", "a", "a", "b", "d");
+        MyMultiset<String> b = multiset("a", "b", "b", "c");
+        assertEquals(multiset("a", "a", "d"), OperazioniSuMultiset.difference(a, b));
+    }
+
+    @Test
+    public void testInPlace() {
+        HashMultiset<String> a = new HashMultiset<String>();
+        a.add("a", 2);
+        a.add("b");
+        OperazioniSuMultiset.unionInPlace(a, multiset("a", "b", "b", "c"));
+        assertEquals(multiset("a", "a", "b", "b", "c"), a);
+        OperazioniSuMultiset.sumInPlace(a, multiset("c", "d"));
+        assertEquals(multiset("a", "a", "b", "b", "c", "c", "d"), a);
+        OperazioniSuMultiset.differenceInPlace(a, multiset("a", "b", "b", "b", "e"));
+        assertEquals(multiset("a", "c", "c", "d"), a);
+        OperazioniSuMultiset.intersectionInPlace(a, multiset("a", "a", "c", "e"));
+        assertEquals(multiset("a", "c"), a);
+        assertEquals(2, a.size());
+        assertEquals(a.hashCode(), multiset("a", "c").hashCode());
+    }
+
+    @Test
+    public void testInPlaceStessoMultiset() {
+        for (int distinti : new int[] { 20, 100, 1000 }) {
+            HashMultiset<Integer> a = new HashMultiset<Integer>();
+            MyMultiset<Integer> atteso = new MyMultiset<Integer>();
+            for (int i = 0; i < distinti; i++) {
+                a.add(i, i % 3 + 1);
+                atteso.add(i, i % 3 + 1);
+            }
+            OperazioniSuMultiset.unionInPlace(a, a);
+            assertEquals(atteso, a);
+            OperazioniSuMultiset.intersectionInPlace(a, a);
+            assertEquals(atteso, a);
+            OperazioniSuMultiset.sumInPlace(a, a);
+            for (int i = 0; i < distinti; i++)
+                atteso.add(i, i % 3 + 1);
+            assertEquals(atteso, a);
+            OperazioniSuMultiset.differenceInPlace(a, a);
+            assertEquals(true, a.isEmpty());
+            assertEquals(0, a.elementSet().size());
+        }
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testNull() {
+        OperazioniSuMultiset.union(multiset("a"), null);
+    }
+
+    @Test
+    public void testSameAsCounts() {
+        Random r = new Random(25);
+        HashMultiset<Integer> a = new HashMultiset<Integer>();
+        SortedMultiset<Integer> b = new SortedMultiset<Integer>();
+        for (int i = 0; i < 3000; i++) {
+            a.add(r.nextInt(500), 1 + r.nextInt(3));
+            b.add(r.nextInt(500), 1 + r.nextInt(3));
+        }
+        HashMultiset<Integer> unione = OperazioniSuMultiset.union(a, b);
+        HashMultiset<Integer> intersezione = OperazioniSuMultiset.intersection(a, b);
+        HashMultiset<Integer> somma = OperazioniSuMultiset.sum(a, b);
+        HashMultiset<Integer> differenza = OperazioniSuMultiset.difference(a, b);
+        Set<Integer> tutti = new HashSet<Integer>(a.elementSet());
+        tutti.addAll(b.elementSet());
+        for (int e : tutti) {
+            assertEquals(Math.max(a.count(e), b.count(e)), unione.count(e));
+            assertEquals(Math.min(a.count(e), b.count(e)), intersezione.count(e));
+            assertEquals(a.count(e) + b.count(e), somma.count(e));
+            assertEquals(Math.max(0, a.count(e) - b.count(e)), differenza.count(e));
+        }
+        assertEquals(unione.size() + intersezione.size(), somma.size());
+        assertEquals(tutti.size(), unione.elementSet().size());
+    }
+}
@@ -0,0 +1,62 @@
+package it.unicam.cs.asdl1819.miniproject1;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class SegmentoDiCrivelloTest {
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testSegmentoDiCrivelloLoZero() {
+        SegmentoDiCrivello s = new SegmentoDiCrivello(0, 10);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testSegmentoDiCrivelloHiLessThanLo() {
+        SegmentoDiCrivello s = new SegmentoDiCrivello(10, 9);
+    }
+
+    @Test
+    public void testIsPrimeSmall() {
+        SegmentoDiCrivello s = new SegmentoDiCrivello(1, 32);
+        assertEquals(false, s.isPrime(1));
+        assertEquals(true, s.isPrime(2));
+        assertEquals(true, s.isPrime(3));
+        assertEquals(false, s.isPrime(9));
+        assertEquals(true, s.isPrime(31));
+        assertEquals(false, s.isPrime(32));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testIsPrimeOutside() {
+        SegmentoDiCrivello s = new SegmentoDiCrivello(100, 200);
+        s.isPrime(99);
+    }
+
+    @Test
+    public void testSameAsCrivello() {
+        CrivelloDiEratostene c = new CrivelloDiEratostene(200000);
+        SegmentoDiCrivello s = new SegmentoDiCrivello(123457, 199999);
+        for (int n = 123457; n <= 199999; n++)
+            assertEquals(c.isPrime(n), s.isPrime(n));
+    }
+
+    @Test
+    public void testNextPrime() {
+        SegmentoDiCrivello s = new SegmentoDiCrivello(1000000000000L, 1000000001000L);
+        assertEquals(1000000000039L, s.nextPrime(999999999999L));
+        assertEquals(1000000000061L, s.nextPrime(1000000000039L));
+        assertEquals(-1, s.nextPrime(1000000001000L));
+        assertEquals(true, s.isPrime(1000000000039L));
+        assertEquals(false, s.isPrime(1000000000041L));
+    }
+
+    @Test
+    public void testNextPrimeFromOne() {
+        SegmentoDiCrivello s = new SegmentoDiCrivello(1, 10);
+        assertEquals(2, s.nextPrime(1));
+        assertEquals(3, s.nextPrime(2));
+        assertEquals(-1, s.nextPrime(7));
+    }
+
+}
@@ -0,0 +1,184 @@
+package it.unicam.cs.asdl1819.miniproject1;
+
+import static org.junit.Assert.*;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+public class SortedMultisetTest {
+
+    @Test
+    public void testSortedMultiset() {
+        SortedMultiset<Integer> m = new SortedMultiset<Integer>();
+        assertEquals(true, m.isEmpty());
+        assertEquals(0, m.size());
+        assertEquals(false, m.iterator().hasNext());
+        assertEquals(null, m.firstEntry());
+        assertEquals(null, m.lastEntry());
+        assertEquals(0, m.countInRange(1, 10));
+    }
+
+    @Test
+    public void testAddCountRemove() {
+        SortedMultiset<Integer> m = new SortedMultiset<Integer>();
+        assertEquals(0, m.add(3, 2));
+        m.add(2);
+        assertEquals(2, m.add(3, 0));
+        assertEquals(2, m.count(3));
+        assertEquals(1, m.count(2));
+        assertEquals(0, m.count(4));
+        assertEquals(0, m.count("3"));
+        assertEquals(3, m.size());
+        assertEquals(2, m.remove(3, 5));
+        assertEquals(false, m.contains(3));
+        assertEquals(true, m.remove(2));
+        assertEquals(false, m.remove(2));
+        assertEquals(true, m.isEmpty());
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testAddNull() {
+        new SortedMultiset<Integer>().add(null);
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testCountNull() {
+        new SortedMultiset<Integer>().count(null);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testAddOverflow() {
+        SortedMultiset<Integer> m = new SortedMultiset<Integer>();
+        m.add(1, Integer.MAX_VALUE - 1);
+        m.add(1, 2);
+    }
+
+    @Test
+    public void testSetCount() {
+        SortedMultiset<Integer> m = new SortedMultiset<Integer>();
+        assertEquals(0, m.setCount(5, 3));
+        assertEquals(3, m.setCount(5, 1));
+        assertEquals(1, m.setCount(5, 0));
+        assertEquals(true, m.isEmpty());
+    }
+
+    @Test
+    public void testOrdine() {
+        SortedMultiset<String> m = new SortedMultiset<String>();
+        m.add("c", 2);
+        m.add("a");
+        m.add("b", 3);
+        StringBuilder s = new StringBuilder();
+        for (Iterator<String> it = m.iterator(); it.hasNext();)
+            s.append(it.next());
+        assertEquals("abbbcc", s.toString());
+        assertEquals("[a, b, c]", m.elementSet().toString());
+        Iterator<Map.Entry<String, Integer>> it = m.entryIterator();
+        assertEquals("a", it.next().getKey());
+        assertEquals(3, (int) it.next().getValue());
+        assertEquals("c", it.next().getKey());
+        assertEquals(false, it.hasNext());
+        assertEquals("a", m.firstEntry().getKey());
+        assertEquals(1, (int) m.firstEntry().getValue());
+        assertEquals("c", m.lastEntry().getKey());
+        assertEquals(2, (int) m.lastEntry().getValue());
+    }
+
+    @Test
+    public void testInterrogazioniSullOrdine() {
+        SortedMultiset<Integer> m = new SortedMultiset<Integer>();
+        m.add(10, 2);
+        m.add(20, 3);
+        m.add(30, 4);
+        assertEquals(5, m.countInRange(10, 20));
+        assertEquals(3, m.countInRange(11, 29));
+        assertEquals(9, m.countInRange(0, 100));
+        assertEquals(0, m.countInRange(30, 10));
+        assertEquals(2, m.headCount(20, false));
+        assertEquals(5, m.headCount(20, true));
+        assertEquals(4, m.tailCount(20, false));
+        assertEquals(7, m.tailCount(20, true));
+        assertEquals(0, m.headCount(5, true));
+        assertEquals(10, (int) m.select(0));
+        assertEquals(10, (int) m.select(1));
+        assertEquals(20, (int) m.select(2));
+        assertEquals(30, (int) m.select(8));
+    }
+
+    @Test(expected=IndexOutOfBoundsException.class)
+    public void testSelectFuoriIntervallo() {
+        SortedMultiset<Integer> m = new SortedMultiset<Integer>();
+        m.add(1, 3);
+        m.select(3);
+    }
+
+    @Test(expected=NoSuchElementException.class)
+    public void testIteratorExceptions() {
+        new SortedMultiset<Integer>().iterator().next();
+    }
+
+    @Test
+    public void testEqualsHashCode() {
+        SortedMultiset<Integer> m = new SortedMultiset<Integer>();
+        MyMultiset<Integer> n = new MyMultiset<Integer>();
+        for (int i = 0; i < 50; i++) {
+            m.add(i % 7, i % 3 + 1);
+            n.add(i % 7, i % 3 + 1);
+        }
+        assertEquals(true, m.equals(n));
+        assertEquals(true, n.equals(m));
+        assertEquals(n.hashCode(), m.hashCode());
+        m.remove(0);
+        assertEquals(false, m.equals(n));
+        assertEquals(false, n.equals(m));
+    }
+
+    @Test
+    public void testSameAsTreeMap() {
+        SortedMultiset<Integer> m = new SortedMultiset<Integer>();
+        TreeMap<Integer, Integer> t = new TreeMap<Integer, Integer>();
+        Random r = new Random(24);
+        for (int i = 0; i < 20000; i++) {
+            int e = r.nextInt(2000);
+            int k = r.nextInt(4);
+            int prima = t.containsKey(e) ? t.get(e) : 0;
+            if (r.nextInt(3) == 0) {
+                assertEquals(prima, m.remove(e, k));
+                if (prima <= k)
+                    t.remove(e);
+                else
+                    t.put(e, prima - k);
+            } else {
+                assertEquals(prima, m.add(e, k));
+                if (prima + k > 0)
+                    t.put(e, prima + k);
+            }
+        }
+        int totale = 0;
+        for (int c : t.values())
+            totale += c;
+        assertEquals(totale, m.size());
+        assertEquals(t.keySet(), m.elementSet());
+        // L'altezza di un albero AVL è al più circa 1.44 log2(d)
+        assertEquals(true, m.altezza() <= 1.45 * Math.log(t.size() + 2) / Math.log(2));
+        for (int i = 0; i < 500; i++) {
+            int lo = r.nextInt(2100) - 50;
+            int hi = r.nextInt(2100) - 50;
+            long atteso = 0;
+            if (lo <= hi)
+                for (int c : t.subMap(lo, true, hi, true).values())
+                    atteso += c;
+            assertEquals(atteso, m.countInRange(lo, hi));
+        }
+        // select ripercorre la sequenza dell'iteratore
+        Iterator<Integer> it = m.iterator();
+        long k = 0;
+        while (it.hasNext())
+            assertEquals(it.next(), m.select(k++));
+    }
+}
@@ -0,0 +1,42 @@
+package it.unicam.cs.asdl1819.miniproject1;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class TabellaFattoriMinimiTest {
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testTabellaFattoriMinimi() {
+        TabellaFattoriMinimi t = new TabellaFattoriMinimi(1);
+    }
+
+    @Test
+    public void testFattoreMinimo() {
+        TabellaFattoriMinimi t = new TabellaFattoriMinimi(100);
+        assertEquals(2, t.fattoreMinimo(2));
+        assertEquals(3, t.fattoreMinimo(3));
+        assertEquals(2, t.fattoreMinimo(100));
+        assertEquals(3, t.fattoreMinimo(99));
+        assertEquals(7, t.fattoreMinimo(91));
+        assertEquals(97, t.fattoreMinimo(97));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testFattoreMinimoExceptions() {
+        TabellaFattoriMinimi t = new TabellaFattoriMinimi(100);
+        t.fattoreMinimo(101);
+    }
+
+    @Test
+    public void testTrialDivision() {
+        TabellaFattoriMinimi t = new TabellaFattoriMinimi(300001);
+        for (int n = 2; n <= 300001; n++) {
+            int d = 2;
+            while (n % d != 0 && d * d <= n)
+                d++;
+            assertEquals(n % d == 0 ? d : n, t.fattoreMinimo(n));
+        }
+    }
+
+}